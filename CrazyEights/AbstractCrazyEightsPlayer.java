@@ -16,11 +16,43 @@ public abstract class AbstractCrazyEightsPlayer implements Player, Comparable<Ab
      */
     private List<Card> hand;
 
+    /**
+     * A read-only view of the player's hand, so that cards only come and go
+     * through the methods which keep the hand's mask and values up to date.
+     */
+    private List<Card> handView;
+
+    /**
+     * The cards currently in the player's hand as a 52-bit set.
+     */
+    private long handMask;
+
+    /**
+     * The points the cards in the player's hand are worth.
+     */
+    private int handValue;
+
+    /**
+     * The points the cards of each suit in the player's hand are worth,
+     * indexed by ordinal.
+     */
+    private int[] suitValues;
+
+    /**
+     * The rules used to decide which cards the player may play.
+     */
+    private CrazyEightsRules rules;
+
     /**
      * The player's total points.
      */
     private int score;
 
+    /**
+     * The player's seat at the table.
+     */
+    private int seat;
+
     /**
      * Constructs an AbstractCrazyEightsPlayer with the give name.
      * 
@@ -29,6 +61,9 @@ public abstract class AbstractCrazyEightsPlayer implements Player, Comparable<Ab
     public AbstractCrazyEightsPlayer(String name) {
         this.name = name;
         this.hand = new ArrayList<>();
+        this.handView = Collections.unmodifiableList(hand);
+        this.suitValues = new int[Card.Suit.values().length];
+        this.rules = new CrazyEightsRules();
     }
 
     /**
@@ -54,6 +89,21 @@ public abstract class AbstractCrazyEightsPlayer implements Player, Comparable<Ab
     public Card play(Card topCard) {
         return play(topCard.suit(), topCard.rank());
     }
+
+    /**
+     * Asks this AbstractCrazyEightsPlayer to play on the given suit or rank,
+     * returning either a card from the player's hand or null if they
+     * chose to draw. Players that reason about the cards they cannot see
+     * override this method to read the table; others ignore it.
+     * 
+     * @param suit      the suit to be played on
+     * @param rank      the rank to be played on
+     * @param table     what every player can see at the table
+     * @return          a valid Card or null if the player is drawing
+     */
+    public Card play(Card.Suit suit, Card.Rank rank, TableView table) {
+        return play(suit, rank);
+    }
     
     /**
      * Adds the given card to the player's hand.
@@ -62,15 +112,73 @@ public abstract class AbstractCrazyEightsPlayer implements Player, Comparable<Ab
      */
     public void add(Card card) {
         hand.add(card);
+        handMask |= card.mask();
+        handValue += CrazyEightsRules.points(card);
+        suitValues[card.suit().ordinal()] += CrazyEightsRules.points(card);
+    }
+
+    /**
+     * Removes the given card from the player's hand.
+     * 
+     * @param card      the card to be removed from the player's hand
+     * @return          the removed card
+     */
+    protected Card remove(Card card) {
+        if (hand.remove(card)) {
+            handMask &= ~card.mask();
+            handValue -= CrazyEightsRules.points(card);
+            suitValues[card.suit().ordinal()] -= CrazyEightsRules.points(card);
+        }
+        return card;
+    }
+
+    /**
+     * Retrieves the cards in the player's hand as a 52-bit set.
+     * 
+     * @return      a long with the bit at each held card's index set
+     */
+    public long getHandMask() {
+        return handMask;
     }
 
     /**
-     * Retrieves all of the cards in the player's hand, returned as a list.
+     * Finds the cards in the player's hand which may be played on the given
+     * suit or rank.
+     * 
+     * @param suit      the suit to be played on
+     * @param rank      the rank to be played on, or null if an eight was played
+     * @return          the set of playable cards in the player's hand
+     */
+    public long legalMoves(Card.Suit suit, Card.Rank rank) {
+        return rules.legalMoves(handMask, suit, rank);
+    }
+
+    /**
+     * Retrieves the rules the player is playing by.
+     * 
+     * @return      the rules used to decide which cards may be played
+     */
+    public CrazyEightsRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Sets the rules the player is playing by.
+     * 
+     * @param rules     the rules used to decide which cards may be played
+     */
+    public void setRules(CrazyEightsRules rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Retrieves all of the cards in the player's hand, returned as a list
+     * which cannot be modified.
      * 
      * @return      a List of Card containing all of the cards in the player's hand
      */
     public List<Card> getHand() {
-        return hand;
+        return handView;
     }
 
     /**
@@ -102,11 +210,25 @@ public abstract class AbstractCrazyEightsPlayer implements Player, Comparable<Ab
         return canPlayOn(topCard.suit(), topCard.rank());
     }
     
+    /**
+     * Returns every card in the player's hand to the given deck's draw pile
+     * and clears the hand.
+     * 
+     * @param deck      the deck the cards are returned to
+     */
+    public void returnCards(Deck deck) {
+        deck.addPlayerHand(handView);
+        clear();
+    }
+
     /**
      * Clears the player's hand.
      */
     public void clear() {
         hand.clear();
+        handMask = 0;
+        handValue = 0;
+        Arrays.fill(suitValues, 0);
     }
 
     /**
@@ -116,19 +238,19 @@ public abstract class AbstractCrazyEightsPlayer implements Player, Comparable<Ab
      *              values in Crazy Eights scoring
      */
     public int getHandValue() {
-        int sum = 0;
-        for (Card card : hand) {
-            if (card.rank() == Card.Rank.ACE) {
-                sum += 1;
-            } else if (card.rank() == Card.Rank.EIGHT) {
-                sum += 50;
-            } else if (card.rank().ordinal() > 8) { 
-                sum += 10;
-            } else {
-                sum += card.rank().ordinal() + 2;
-            }
-        }
-        return sum;
+        return handValue;
+    }
+
+    /**
+     * Retrieves the value of the cards of the given suit in this player's
+     * current hand.
+     * 
+     * @param suit  the suit of the cards to be valued
+     * @return      the value of the player's cards of the suit according to
+     *              the card values in Crazy Eights scoring
+     */
+    public int getHandValue(Card.Suit suit) {
+        return suitValues[suit.ordinal()];
     }
 
     /**
@@ -151,6 +273,24 @@ public abstract class AbstractCrazyEightsPlayer implements Player, Comparable<Ab
         return score;
     }
 
+    /**
+     * Reports this AbstractCrazyEightsPlayer's seat at the table.
+     * 
+     * @return      the seat number, counting from 0
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Seats this AbstractCrazyEightsPlayer at the table.
+     * 
+     * @param seat      the seat number, counting from 0
+     */
+    public void setSeat(int seat) {
+        this.seat = seat;
+    }
+
     /**
      * Gives this AbstractCrazyEightsPlayer's name.
      * 
@@ -185,5 +325,7 @@ public abstract class AbstractCrazyEightsPlayer implements Player, Comparable<Ab
      * @param rank      the rank to be checked for playability
      * @return          true if the player can play on the given suit; false otherwise
      */
-    public abstract boolean canPlayOn(Card.Suit suit, Card.Rank rank);
+    public boolean canPlayOn(Card.Suit suit, Card.Rank rank) {
+        return legalMoves(suit, rank) != 0;
+    }
 }
@@ -12,6 +12,11 @@ public class Card implements Comparable<Card> {
      * The rank, or face value, of this Card.
      */
     private Rank rank;
+
+    /**
+     * The position of this Card in a 52-card deck, from 0 to 51.
+     */
+    private int index;
     
     /**
      * The set of all possible suits.
@@ -46,6 +51,17 @@ public class Card implements Comparable<Card> {
     public Card(Suit suit, Rank rank) {
         this.suit = suit;
         this.rank = rank;
+        this.index = suit.ordinal() * 13 + rank.ordinal();
+    }
+
+    /**
+     * Gives the Card at the given position in a 52-card deck.
+     * 
+     * @param index     a number from 0 to 51, as given by index()
+     * @return          a Card with the suit and rank at that position
+     */
+    public static Card fromIndex(int index) {
+        return new Card(Suit.values()[index / 13], Rank.values()[index % 13]);
     }
 
     /**
@@ -66,6 +82,26 @@ public class Card implements Comparable<Card> {
         return rank;
     }
 
+    /**
+     * Reports the position of this Card in a 52-card deck. Cards are
+     * numbered by suit and then by rank, so each suit occupies 13
+     * consecutive positions.
+     * 
+     * @return      a number from 0 to 51 unique to this Card's suit and rank
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * Reports this Card as a single bit of a 52-bit card set.
+     * 
+     * @return      a long with only the bit at this Card's index set
+     */
+    public long mask() {
+        return 1L << index;
+    }
+
     /**
      * Returns a String containing the rank and suit
      * of this Card.
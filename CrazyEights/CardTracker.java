@@ -0,0 +1,267 @@
+import java.util.*;
+
+/**
+ * A CardTracker keeps the public information of a table of Crazy Eights up
+ * to date as cards move, so that players can look it up through a TableView
+ * without searching the piles or anyone's hand.
+ *
+ * The Deck reports draws, discards, reshuffles and returned hands, while the
+ * CrazyEightsAdmin reports which seat took or played each card.
+ */
+public class CardTracker {
+    /**
+     * The cards not shown face up since the last reset.
+     */
+    private long unseen;
+
+    /**
+     * The number of unseen cards of each suit, indexed by ordinal.
+     */
+    private int[] unseenBySuit;
+
+    /**
+     * The number of unseen cards of each rank, indexed by ordinal.
+     */
+    private int[] unseenByRank;
+
+    /**
+     * The cards in the discard pile.
+     */
+    private long discards;
+
+    /**
+     * The card on top of the discard pile, or 0 if the pile is empty.
+     */
+    private long topDiscard;
+
+    /**
+     * The number of cards in the draw pile.
+     */
+    private int drawPileSize;
+
+    /**
+     * The cards shuffled back into the draw pile at the last reshuffle which
+     * have not been shown since, or 0 if there has been no reshuffle since
+     * the last reset. Each is in the draw pile or in someone's hand.
+     */
+    private long reshuffled;
+
+    /**
+     * The card revealed by the last draw, or 0 if the drawn card could not
+     * be told apart from the others.
+     */
+    private long lastDrawn;
+
+    /**
+     * Tracks whether or not play passes to lower seat numbers.
+     */
+    private boolean reversed;
+
+    /**
+     * The number of cards held by each seat.
+     */
+    private int[] handSizes;
+
+    /**
+     * The cards known to be held by each seat.
+     */
+    private long[] known;
+
+    /**
+     * A read-only view of this CardTracker.
+     */
+    private TableView view;
+
+    /**
+     * Constructs a CardTracker for the given number of seats with every card
+     * in the draw pile.
+     *
+     * @param seats     the number of seats at the table
+     */
+    public CardTracker(int seats) {
+        unseenBySuit = new int[Card.Suit.values().length];
+        unseenByRank = new int[Card.Rank.values().length];
+        handSizes = new int[seats];
+        known = new long[seats];
+        view = new View();
+        reset();
+    }
+
+    /**
+     * Records that every card has been gathered into the draw pile and shuffled.
+     * The direction of play carries over.
+     */
+    public void reset() {
+        unseen = CrazyEightsRules.ALL_CARDS;
+        Arrays.fill(unseenBySuit, Card.Rank.values().length);
+        Arrays.fill(unseenByRank, Card.Suit.values().length);
+        discards = 0;
+        topDiscard = 0;
+        drawPileSize = 52;
+        reshuffled = 0;
+        lastDrawn = 0;
+        Arrays.fill(handSizes, 0);
+        Arrays.fill(known, 0);
+    }
+
+    /**
+     * Records that the cards are in the given piles, with the rest in players'
+     * hands, as when a parked table is brought back. Cards shown before the
+     * table was parked and since shuffled back into the draw pile count as
+     * unseen again.
+     *
+     * @param drawPile      the cards left to draw
+     * @param discardPile   the cards played, from the most recent down
+     */
+    public void restore(List<Card> drawPile, List<Card> discardPile) {
+        reset();
+        drawPileSize = drawPile.size();
+        for (int i = discardPile.size() - 1; i >= 0; i--) {
+            discarded(discardPile.get(i));
+        }
+    }
+
+    /**
+     * Records that a card was removed from the draw pile. If the draw pile's
+     * last card is the only one it could have been, the card is revealed to
+     * whoever takes it.
+     */
+    public void drew() {
+        lastDrawn = drawPileSize == 1 && Long.bitCount(reshuffled) == 1 ? reshuffled : 0;
+        reshuffled &= ~lastDrawn;
+        drawPileSize--;
+    }
+
+    /**
+     * Records that the given card was placed face up on the discard pile.
+     *
+     * @param card      the card discarded
+     */
+    public void discarded(Card card) {
+        show(card);
+        discards |= card.mask();
+        topDiscard = card.mask();
+        reshuffled &= ~card.mask();
+    }
+
+    /**
+     * Records that every discard but the top one was shuffled into the draw pile.
+     */
+    public void reshuffled() {
+        reshuffled = discards & ~topDiscard;
+        drawPileSize += Long.bitCount(reshuffled);
+        discards = topDiscard;
+    }
+
+    /**
+     * Records that the given hand was shown and added to the draw pile.
+     *
+     * @param hand      the cards returned to the draw pile
+     */
+    public void returned(List<Card> hand) {
+        for (Card card : hand) {
+            show(card);
+        }
+        drawPileSize += hand.size();
+    }
+
+    /**
+     * Records that the direction of play was reversed.
+     */
+    public void reversed() {
+        reversed = !reversed;
+    }
+
+    /**
+     * Records that the player in the given seat took the last card drawn.
+     *
+     * @param seat      the seat of the player who drew
+     */
+    public void took(int seat) {
+        handSizes[seat]++;
+        known[seat] |= lastDrawn;
+        lastDrawn = 0;
+    }
+
+    /**
+     * Records that the player in the given seat played the given card.
+     *
+     * @param seat      the seat of the player who played
+     * @param card      the card played
+     */
+    public void played(int seat, Card card) {
+        handSizes[seat]--;
+        known[seat] &= ~card.mask();
+    }
+
+    /**
+     * Gives a read-only view of this CardTracker.
+     *
+     * @return      a TableView reflecting this CardTracker as it changes
+     */
+    public TableView getView() {
+        return view;
+    }
+
+    /**
+     * Removes the given card from the unseen cards.
+     *
+     * @param card      the card shown face up
+     */
+    private void show(Card card) {
+        if ((unseen & card.mask()) != 0) {
+            unseen &= ~card.mask();
+            unseenBySuit[card.suit().ordinal()]--;
+            unseenByRank[card.rank().ordinal()]--;
+        }
+    }
+
+    /**
+     * A View answers TableView queries from the fields of its CardTracker.
+     */
+    private class View implements TableView {
+        public long getUnseen() {
+            return unseen;
+        }
+
+        public int getUnseenCount() {
+            return Long.bitCount(unseen);
+        }
+
+        public int getUnseenCount(Card.Suit suit) {
+            return unseenBySuit[suit.ordinal()];
+        }
+
+        public int getUnseenCount(Card.Rank rank) {
+            return unseenByRank[rank.ordinal()];
+        }
+
+        public long getDiscards() {
+            return discards;
+        }
+
+        public long getTopDiscard() {
+            return topDiscard;
+        }
+
+        public int getDrawPileSize() {
+            return drawPileSize;
+        }
+
+        public boolean isReversed() {
+            return reversed;
+        }
+
+        public int getSeatCount() {
+            return handSizes.length;
+        }
+
+        public int getHandSize(int seat) {
+            return handSizes[seat];
+        }
+
+        public long getKnown(int seat) {
+            return known[seat];
+        }
+    }
+}
@@ -27,10 +27,22 @@ public class CrazyBot extends AbstractCrazyEightsPlayer {
      * @param n     a number specifying which number bot this is
      */
     public CrazyBot(int n) {
+        this(n, new Random());
+    }
+
+    /**
+     * Constructs a CrazyBot with the given number which makes its random
+     * choices with the given Random, so that a seeded game can be played
+     * again move for move.
+     * 
+     * @param n         a number specifying which number bot this is
+     * @param rand      the source of randomness for the bot's choices
+     */
+    public CrazyBot(int n, Random rand) {
         super("Bot " + n);
-        suits = new HashMap<>();
-        ranks = new HashMap<>();
-        rand = new Random();
+        suits = new EnumMap<>(Card.Suit.class);
+        ranks = new EnumMap<>(Card.Rank.class);
+        this.rand = rand;
         for (Card.Suit suit : Card.Suit.values()) {
             suits.put(suit, new PriorityQueue<>(new RankComparator()));
         }
@@ -48,33 +60,26 @@ public class CrazyBot extends AbstractCrazyEightsPlayer {
     }
 
     public Card play(Card.Suit suit, Card.Rank rank) {
-        Card removed = null;
-        if (canPlayOn(suit, rank)) {
-            if (ranks.get(Card.Rank.EIGHT).size() > 0 && rand.nextInt(7) == 5 || (suits.get(suit).size() == 0 && (rank == null || 
-                        (rank != null && ranks.get(rank).size() == 0)))) {
-                removed = ranks.get(Card.Rank.EIGHT).remove(0);
-            } else if (suits.get(suit).size() > 0) {
-                removed = suits.get(suit).remove();
-                ranks.get(removed.rank()).remove(removed);
-            } else {
-                removed = ranks.get(rank).remove(0);
-                suits.get(removed.suit()).remove(removed);
-            }
-            getHand().remove(removed);    
+        long legal = legalMoves(suit, rank);
+        if (legal == 0) {
+            return null;
         }
-        return removed;
-    }
-
-    public boolean canPlayOn(Card.Suit suit, Card.Rank rank) {
-        boolean suitsEightCheck = suits.get(suit).size() > 0 || ranks.get(Card.Rank.EIGHT).size() > 0;
-        if (rank != null) {
-            return suitsEightCheck || ranks.get(rank).size() > 0;
+        Card removed = null;
+        long wild = legal & CrazyEightsRules.EIGHTS;
+        if (wild != 0 && (wild == legal || rand.nextInt(7) == 5)) {
+            removed = ranks.get(Card.Rank.EIGHT).remove(0);
+        } else if ((legal & ~wild & CrazyEightsRules.suitMask(suit)) != 0) {
+            removed = suits.get(suit).remove();
+            ranks.get(removed.rank()).remove(removed);
+        } else {
+            removed = ranks.get(rank).remove(0);
+            suits.get(removed.suit()).remove(removed);
         }
-        return suitsEightCheck;
+        return remove(removed);
     }
 
     public Card.Suit chooseNewSuit() {
-        int most = 0;
+        int most = -1;
         Card.Suit mostSuit = null;
         for (Card.Suit suit : suits.keySet()) {
             if (suits.get(suit).size() > most) {
@@ -90,6 +95,8 @@ public class CrazyBot extends AbstractCrazyEightsPlayer {
         for (Card.Suit suit : suits.keySet()) {
             suits.get(suit).clear();
         }
-        ranks.get(Card.Rank.EIGHT).clear();
+        for (Card.Rank rank : ranks.keySet()) {
+            ranks.get(rank).clear();
+        }
     }
 }
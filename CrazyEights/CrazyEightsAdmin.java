@@ -1,3 +1,4 @@
+import java.nio.*;
 import java.util.*;
 
 /**
@@ -30,79 +31,378 @@ public class CrazyEightsAdmin {
      */
     private int turn;
 
+    /**
+     * The number of cards the current player has drawn this turn.
+     */
+    private int draws;
+
+    /**
+     * The suit chosen by the player who last played an eight.
+     */
+    private Card.Suit suit;
+
+    /**
+     * The effect code of the last card played, to be applied before the next turn.
+     */
+    private int effect;
+
+    /**
+     * The rules which decide which cards may be played and what they do.
+     */
+    private CrazyEightsRules rules;
+
+    /**
+     * Streams what happens at the table to spectators.
+     */
+    private GameEventPublisher events;
+
+    /**
+     * The Flight Recorder event timing the play phase of the current round,
+     * begun when the first card is flipped, or when the table was unparked if
+     * it was parked mid-round; null between rounds.
+     */
+    private RoundEvent playEvent;
+
     /**
      * Constructs a CrazyEightsAdmin which represents the given number of players
-     * and records the player's name.
+     * and records the player's name. Games are played by the traditional rules.
      * 
      * @param name          the name of the sentient player
      * @param numPlayers    the number of players who will be playing games
      * @param console       a Scanner which takes user input
      */
     public CrazyEightsAdmin(String name, int numPlayers, Scanner console) {
-        players = new LinkedList<>();
-        deck = new Deck52();
-        players.add(new CrazyPlayer(name, console));
+        this(name, numPlayers, console, new CrazyEightsRules());
+    }
+
+    /**
+     * Constructs a CrazyEightsAdmin which represents the given number of players
+     * and records the player's name. Games are played by the given rules.
+     * 
+     * @param name          the name of the sentient player
+     * @param numPlayers    the number of players who will be playing games
+     * @param console       a Scanner which takes user input
+     * @param rules         the rules to be used by the admin and every player
+     */
+    public CrazyEightsAdmin(String name, int numPlayers, Scanner console, CrazyEightsRules rules) {
+        players = new LinkedList<>(sentientTable(name, numPlayers, console, new Random()));
+        seatPlayers(rules, new GameEventPublisher());
+        deck = new Deck52(numPlayers);
+    }
+
+    /**
+     * Constructs a CrazyEightsAdmin which seats the given players in order,
+     * as when a tournament forms a table of bots. Games are played by the
+     * given rules.
+     * 
+     * @param seated        the players to be seated, from seat 0 up
+     * @param rules         the rules to be used by the admin and every player
+     */
+    public CrazyEightsAdmin(List<? extends AbstractCrazyEightsPlayer> seated, CrazyEightsRules rules) {
+        this(seated, rules, new Random());
+    }
+
+    /**
+     * Constructs a CrazyEightsAdmin which seats the given players in order
+     * and shuffles with the given Random, so that a game between seeded bots
+     * can be played again card for card. Games are played by the given rules.
+     * 
+     * @param seated        the players to be seated, from seat 0 up
+     * @param rules         the rules to be used by the admin and every player
+     * @param rand          the source of randomness for every shuffle
+     */
+    public CrazyEightsAdmin(List<? extends AbstractCrazyEightsPlayer> seated, CrazyEightsRules rules, Random rand) {
+        if (seated.size() < 2 || seated.size() > 7) {
+            throw new IllegalArgumentException("A table seats 2 to 7 players: " + seated.size());
+        }
+        players = new LinkedList<>(seated);
+        seatPlayers(rules, new GameEventPublisher());
+        deck = new Deck52(seated.size(), rand);
+    }
+
+    /**
+     * Constructs a CrazyEightsAdmin for a table of the sentient player and
+     * bots parked in the given record by writeTo, with no spectators. The
+     * table resumes with the next turn, or with the next deal if the game was
+     * over, but does not play out the same way twice.
+     * 
+     * @param record        the buffer holding the parked table
+     * @param offset        the position of the record in the buffer
+     * @param name          the name of the sentient player
+     * @param console       a Scanner which takes user input
+     * @param rules         the rules the table was playing by
+     */
+    public CrazyEightsAdmin(ByteBuffer record, int offset, String name, Scanner console, CrazyEightsRules rules) {
+        this(record, offset, name, console, rules, new Random(), new GameEventPublisher());
+    }
+
+    /**
+     * Constructs a CrazyEightsAdmin for a table of the sentient player and
+     * bots parked in the given record by writeTo. The bots are built afresh
+     * for the number of seats in the record and, like the deck, draw their
+     * randomness from the given Random, so the table carries on the same way
+     * each time it is rebuilt from the same record and seed.
+     * 
+     * @param record        the buffer holding the parked table
+     * @param offset        the position of the record in the buffer
+     * @param name          the name of the sentient player
+     * @param console       a Scanner which takes user input
+     * @param rules         the rules the table was playing by
+     * @param rand          the source of randomness for the bots and shuffles
+     * @param events        the publisher streaming the table to spectators
+     */
+    public CrazyEightsAdmin(ByteBuffer record, int offset, String name, Scanner console, CrazyEightsRules rules,
+            Random rand, GameEventPublisher events) {
+        this(record, offset, sentientTable(name, record.get(offset + 45) & 7, console, rand), rules, rand, events);
+    }
+
+    /**
+     * Constructs a CrazyEightsAdmin for a table parked in the given record by
+     * writeTo, seating the given players. The record holds every card and
+     * score, so the players need not be the ones the table was built with:
+     * each player's hand and score are replaced by the ones in the record,
+     * and the same player objects may be reused for one table after another.
+     * The table resumes with the next turn, or with the next deal if the game
+     * was over, shuffling with the given Random.
+     * 
+     * @param record        the buffer holding the parked table
+     * @param offset        the position of the record in the buffer
+     * @param seated        the players to be seated, from seat 0 up
+     * @param rules         the rules the table was playing by
+     * @param rand          the source of randomness for every shuffle
+     * @param events        the publisher streaming the table to spectators
+     */
+    public CrazyEightsAdmin(ByteBuffer record, int offset, List<? extends AbstractCrazyEightsPlayer> seated,
+            CrazyEightsRules rules, Random rand, GameEventPublisher events) {
+        int flags = record.get(offset + 45);
+        int numPlayers = flags & 7;
+        if (seated.size() != numPlayers) {
+            throw new IllegalArgumentException("The parked table seats " + numPlayers + " players: " + seated.size());
+        }
+        players = new LinkedList<>(seated);
+        seatPlayers(rules, events);
+        AbstractCrazyEightsPlayer[] bySeat = players.toArray(new AbstractCrazyEightsPlayer[numPlayers]);
+        for (AbstractCrazyEightsPlayer p : bySeat) {
+            p.clear();
+        }
+
+        int[] order = getSixBits(record, offset, 52);
+        int[] sizes = getSixBits(record, offset + 39, 8);
+        int next = sizes[0];
+        for (int seat = 0; seat < numPlayers; seat++) {
+            for (int i = 0; i < sizes[seat + 1]; i++) {
+                bySeat[seat].add(Card.fromIndex(order[next++]));
+            }
+        }
+        List<Card> drawPile = new ArrayList<>();
+        for (int i = 0; i < sizes[0]; i++) {
+            drawPile.add(Card.fromIndex(order[i]));
+        }
+        List<Card> discardPile = new ArrayList<>();
+        for (int i = next; i < 52; i++) {
+            discardPile.add(Card.fromIndex(order[i]));
+        }
+        deck = new Deck52(numPlayers, drawPile, discardPile, rand);
+        for (int seat = 0; seat < numPlayers; seat++) {
+            for (int i = 0; i < sizes[seat + 1]; i++) {
+                deck.getTracker().took(seat);
+            }
+            bySeat[seat].awardPoints(record.getChar(offset + 50 + 2 * seat) - bySeat[seat].getScore());
+        }
+
+        int seats = record.get(offset + 47);
+        int head = seats & 7;
+        boolean reversed = (flags & 8) != 0;
+        players.clear();
+        for (int i = 0; i < numPlayers; i++) {
+            players.add(bySeat[Math.floorMod(reversed ? head - i : head + i, numPlayers)]);
+        }
+        if (reversed) {
+            deck.getTracker().reversed();
+        }
+        dealer = (seats >> 3 & 7) < numPlayers ? bySeat[seats >> 3 & 7] : null;
+        gameOver = (flags & 16) != 0;
+        suit = (flags & 32) != 0 ? Card.Suit.values()[record.get(offset + 46) & 3] : null;
+        effect = record.get(offset + 46) >> 2 & 15;
+        turn = record.getChar(offset + 48);
+        if (!gameOver) {
+            playEvent = new RoundEvent();
+            playEvent.begin();
+        }
+    }
+
+    /**
+     * Creates the sentient player followed by bots.
+     * 
+     * @param name          the name of the sentient player
+     * @param numPlayers    the number of players who will be playing games
+     * @param console       a Scanner which takes user input
+     * @param rand          the source of each bot's seed
+     * @return              the players, from seat 0 up
+     */
+    private static List<AbstractCrazyEightsPlayer> sentientTable(String name, int numPlayers, Scanner console,
+            Random rand) {
+        List<AbstractCrazyEightsPlayer> table = new ArrayList<>();
+        table.add(new CrazyPlayer(name, console));
         for (int i = 1; i < numPlayers; i++) {
-            players.add(new CrazyBot(i));
+            table.add(new CrazyBot(i, new Random(rand.nextLong())));
+        }
+        return table;
+    }
+
+    /**
+     * Gives every player the given rules and their seat, in the order they
+     * are listed.
+     * 
+     * @param rules         the rules to be used by the admin and every player
+     * @param events        the publisher streaming the table to spectators
+     */
+    private void seatPlayers(CrazyEightsRules rules, GameEventPublisher events) {
+        this.rules = rules;
+        this.events = events;
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).setRules(rules);
+            players.get(i).setSeat(i);
         }
-        players.get(1).add(new Card(Card.Suit.SPADES, Card.Rank.EIGHT));
     }
 
     /**
      * Adds 5 cards from the draw pile to each player's hand.
      */
     public void deal() {
+        RoundEvent roundEvent = new RoundEvent();
+        roundEvent.begin();
         for (int i = 0; i < 5; i++) {
             for(AbstractCrazyEightsPlayer p : players) {
                 p.add(deck.draw());
+                deck.getTracker().took(p.getSeat());
             }
         }
+        commit(roundEvent, "deal");
     }
 
     /**
      * Begins a round of Crazy Eights and concludes when a winner has been found.
      */
     public void play() {
+        start();
+        while (!gameOver) {
+            playTurn();
+        }
+    }
+
+    /**
+     * Flips the first card of a round of Crazy Eights. The round is then
+     * played one turn at a time by calling playTurn until the game is over.
+     */
+    public void start() {
+        playEvent = new RoundEvent();
+        playEvent.begin();
         gameOver = false;
         turn = 0;
         dealer = players.get(0);
-        Card.Suit suit = null;
+        suit = null;
         System.out.println(dealer + " is the dealer.");
         deck.discard(deck.draw());
-        //Note: while it may appear redudant, it is possible for the player to draw when
-        //the suit was changed, which would force the next player/bot to instead play on
-        //the suit; therefore, some kind of check is necessary
-        boolean eightFlag = deck.topDiscard().rank() == Card.Rank.EIGHT ? true : false;
         System.out.println("A " + deck.topDiscard() + " was flipped to begin.");
-        while (!gameOver) {
-            Collections.rotate(players, -1);
-            if (eightFlag) {
-                suit = players.get(players.size() - 1).chooseNewSuit();
-                System.out.println("The new suit is: " + suit);
+        publish(GameEvent.Type.FLIPPED, null, deck.topDiscard(), deck.topDiscard().suit());
+        //Note: the effect only lasts for the turn following the card, so a player
+        //drawing after an eight leaves the suit in place without choosing a new one;
+        //the flipped card's effect applies as if the dealer had played it
+        effect = rules.effect(deck.topDiscard());
+        if ((effect & CrazyEightsRules.REVERSE) != 0) {
+            reverse();
+        }
+    }
+
+    /**
+     * Plays the next player's turn, applying the effect of the last card played
+     * before it and announcing the winner if the player goes out.
+     */
+    public void playTurn() {
+        Collections.rotate(players, -1);
+        if ((effect & CrazyEightsRules.WILD) != 0) {
+            AbstractCrazyEightsPlayer chooser = players.get(players.size() - 1);
+            DecisionEvent decisionEvent = new DecisionEvent();
+            decisionEvent.begin();
+            suit = chooser.chooseNewSuit();
+            decisionEvent.end();
+            if (decisionEvent.shouldCommit()) {
+                decisionEvent.decision = "chooseNewSuit";
+                decisionEvent.playerClass = chooser.getClass().getSimpleName();
+                decisionEvent.seat = chooser.getSeat();
+                decisionEvent.handSize = chooser.getHand().size();
+                decisionEvent.choice = String.valueOf(suit);
+                decisionEvent.commit();
             }
-            eightFlag = getCard(deck.topDiscard(), eightFlag, suit);
-            if (players.get(0).isOut()) {
-                gameOver = true;
+            System.out.println("The new suit is: " + suit);
+            publish(GameEvent.Type.NEW_SUIT, chooser, null, suit);
+        }
+        if ((effect & CrazyEightsRules.DRAW_TWO) != 0) {
+            drawCards(players.get(0), 2);
+        }
+        if ((effect & (CrazyEightsRules.DRAW_TWO | CrazyEightsRules.SKIP)) != 0) {
+            System.out.println(players.get(0) + " lost their turn.");
+            Collections.rotate(players, -1);
+        }
+        TurnEvent turnEvent = new TurnEvent();
+        turnEvent.begin();
+        draws = 0;
+        effect = getCard(deck.topDiscard(), suit);
+        turnEvent.end();
+        if (turnEvent.shouldCommit()) {
+            turnEvent.turn = turn;
+            turnEvent.seat = players.get(0).getSeat();
+            turnEvent.handSize = players.get(0).getHand().size();
+            turnEvent.draws = draws;
+            turnEvent.drawPileSize = deck.getTracker().getView().getDrawPileSize();
+            turnEvent.effect = effect;
+            turnEvent.commit();
+        }
+        if (players.get(0).isOut()) {
+            gameOver = true;
+        } else if ((effect & CrazyEightsRules.REVERSE) != 0) {
+            System.out.println("The direction of play was reversed.");
+            reverse();
+        }
+        turn++;
+        if (gameOver) {
+            System.out.println();
+            System.out.println("Game over: the winner is " + players.get(0) + "!");
+            System.out.println("The game lasted " + turn + " turns. ");
+            publish(GameEvent.Type.GAME_OVER, players.get(0), null, deck.topDiscard().suit());
+            if (playEvent != null) {
+                commit(playEvent, "play");
+                playEvent = null;
             }
-            turn++;
         }
-        System.out.println();
-        System.out.println("Game over: the winner is " + players.get(0) + "!");
-        System.out.println("The game lasted " + turn + " turns. ");
+    }
+
+    /**
+     * Reports whether the current round has a winner.
+     * 
+     * @return      true if a player has gone out; false otherwise
+     */
+    public boolean isGameOver() {
+        return gameOver;
     }
 
     /**
      * Retrieves a card from the player and adds it to the current discard pile or
      * draws a card from the draw pile to add to the player's hand. If a player
      * chooses to draw but the draw pile is empty, and if the discard is also empty
-     * barring the top discard, then the player is forcecd to pass. 
+     * barring the top discard, or if the player has reached the draw limit, then
+     * the player is forcecd to pass. 
      * 
      * @param lastPlayed    the Card which was last played
-     * @param eightFlag     a boolean which is true if the last card played was an eight
      * @param suit          the suit to be played on if the last card was an eight
-     * @return              true if the last card played was an eight; false otherwise
+     * @return              the effect code of the card played, or 0 if no card
+     *                      was played
      */
-    private boolean getCard(Card lastPlayed, boolean eightFlag, Card.Suit suit) {
+    private int getCard(Card lastPlayed, Card.Suit suit) {
+        boolean eightFlag = lastPlayed.rank() == Card.Rank.EIGHT;
+        Card.Suit playOn = eightFlag ? suit : lastPlayed.suit();
+        Card.Rank rank = eightFlag ? null : lastPlayed.rank();
         if (players.get(0) instanceof CrazyPlayer) {
             System.out.println();
             if (eightFlag) {
@@ -114,26 +414,249 @@ public class CrazyEightsAdmin {
         if (deck.isEmpty()) {
             deck.reshuffle();       
         }
-        Card choice = lastPlayed.rank() == Card.Rank.EIGHT ? players.get(0).play(suit) :
-                players.get(0).play(lastPlayed);
+        DecisionEvent decisionEvent = new DecisionEvent();
+        decisionEvent.begin();
+        Card choice = players.get(0).play(playOn, rank, deck.getTracker().getView());
+        decisionEvent.end();
+        if (decisionEvent.shouldCommit()) {
+            decisionEvent.decision = "play";
+            decisionEvent.playerClass = players.get(0).getClass().getSimpleName();
+            decisionEvent.seat = players.get(0).getSeat();
+            decisionEvent.handSize = players.get(0).getHand().size() + (choice == null ? 0 : 1);
+            decisionEvent.draws = draws;
+            decisionEvent.choice = String.valueOf(choice);
+            decisionEvent.commit();
+        }
         if (choice != null) {
             System.out.println(players.get(0) + " played: " + choice);
             deck.discard(choice);
-            if (choice.rank() == Card.Rank.EIGHT) {
-                return true;
-            }
-        } else if (deck.isEmpty()) {
+            deck.getTracker().played(players.get(0).getSeat(), choice);
+            publish(GameEvent.Type.PLAYED, players.get(0), choice,
+                    choice.rank() == Card.Rank.EIGHT ? playOn : choice.suit());
+            return rules.effect(choice);
+        } else if (deck.isEmpty() || (rules.getDrawLimit() > 0 && draws >= rules.getDrawLimit())) {
             System.out.println(players.get(0) + " was forced to pass.");
+            publish(GameEvent.Type.PASSED, players.get(0), null, playOn);
+            PassEvent passEvent = new PassEvent();
+            if (passEvent.isEnabled()) {
+                passEvent.seat = players.get(0).getSeat();
+                passEvent.handSize = players.get(0).getHand().size();
+                passEvent.draws = draws;
+                passEvent.drawPileSize = deck.getTracker().getView().getDrawPileSize();
+                passEvent.commit();
+            }
         } else {
             System.out.println(players.get(0) + " drew a card.");
-            boolean canPlay = lastPlayed.rank() == Card.Rank.EIGHT ? players.get(0).canPlayOn(suit) :
-                    players.get(0).canPlayOn(lastPlayed);
+            boolean canPlay = players.get(0).canPlayOn(playOn, rank);
             players.get(0).add(deck.draw());
+            deck.getTracker().took(players.get(0).getSeat());
+            publish(GameEvent.Type.DREW, players.get(0), null, playOn);
+            draws++;
             if (!canPlay) {
-                return getCard(lastPlayed, eightFlag, suit);
+                return getCard(lastPlayed, suit);
             }
         }
-        return false;
+        return 0;
+    }
+
+    /**
+     * Adds up to the given number of cards from the draw pile to the player's
+     * hand, stopping early if no cards are left to draw.
+     * 
+     * @param player    the player drawing the cards
+     * @param count     the number of cards to be drawn
+     */
+    private void drawCards(AbstractCrazyEightsPlayer player, int count) {
+        int drawn = 0;
+        while (drawn < count) {
+            if (deck.isEmpty()) {
+                deck.reshuffle();
+            }
+            if (deck.isEmpty()) {
+                break;
+            }
+            player.add(deck.draw());
+            deck.getTracker().took(player.getSeat());
+            drawn++;
+            publish(GameEvent.Type.DREW, player, null, deck.topDiscard().suit());
+        }
+        System.out.println(player + " drew " + drawn + " cards.");
+    }
+
+    /**
+     * Publishes an event to spectators, together with the top card and the
+     * size of every seat's hand. Nothing is built when nobody is watching.
+     * 
+     * @param type      what happened
+     * @param player    the player involved, or null if no player was involved
+     * @param card      the card that was flipped or played, or null if no card was shown
+     * @param onSuit    the suit to be played on after the event
+     */
+    private void publish(GameEvent.Type type, AbstractCrazyEightsPlayer player, Card card, Card.Suit onSuit) {
+        if (!events.hasSubscribers()) {
+            return;
+        }
+        TableView view = deck.getTracker().getView();
+        int[] handSizes = new int[view.getSeatCount()];
+        for (int seat = 0; seat < handSizes.length; seat++) {
+            handSizes[seat] = view.getHandSize(seat);
+        }
+        events.publish(new GameEvent(type, turn, player, card, onSuit, deck.topDiscard(), handSizes));
+    }
+
+    /**
+     * Writes this table into a 64-byte record between turns, so that it can
+     * be dropped and later rebuilt from the record. The record holds:
+     * <ul>
+     * <li>bytes 0-38: the 52 cards as 6-bit indices, in the order of the draw
+     * pile from the top, then each seat's hand, then the discard pile from the top</li>
+     * <li>bytes 39-44: 6-bit sizes of the draw pile and of each of up to 7 hands</li>
+     * <li>byte 45: the number of players, then flags for reversed play, game
+     * over and a chosen suit</li>
+     * <li>byte 46: the chosen suit, then the pending effect code</li>
+     * <li>byte 47: the seat first in turn order, then the dealer's seat</li>
+     * <li>bytes 48-49: the turn number</li>
+     * <li>bytes 50-63: each seat's score</li>
+     * </ul>
+     * 
+     * @param record    the buffer to hold the parked table
+     * @param offset    the position of the record in the buffer
+     * @throws IllegalStateException if the turn or a score is too large for
+     *                  the record
+     */
+    public void writeTo(ByteBuffer record, int offset) {
+        int numPlayers = players.size();
+        AbstractCrazyEightsPlayer[] bySeat = new AbstractCrazyEightsPlayer[numPlayers];
+        for (AbstractCrazyEightsPlayer p : players) {
+            bySeat[p.getSeat()] = p;
+        }
+        int[] order = new int[52];
+        int[] sizes = new int[8];
+        int next = 0;
+        for (Card card : deck.getDrawPile()) {
+            order[next++] = card.index();
+        }
+        sizes[0] = next;
+        for (int seat = 0; seat < numPlayers; seat++) {
+            for (Card card : bySeat[seat].getHand()) {
+                order[next++] = card.index();
+            }
+            sizes[seat + 1] = bySeat[seat].getHand().size();
+        }
+        for (Card card : deck.getDiscardPile()) {
+            order[next++] = card.index();
+        }
+        if (turn > Character.MAX_VALUE) {
+            throw new IllegalStateException("Turn " + turn + " is too large to park");
+        }
+        for (AbstractCrazyEightsPlayer p : players) {
+            if (p.getScore() > Character.MAX_VALUE) {
+                throw new IllegalStateException(p + "'s score of " + p.getScore() + " is too large to park");
+            }
+        }
+
+        putSixBits(record, offset, order);
+        putSixBits(record, offset + 39, sizes);
+        boolean reversed = numPlayers > 2
+                && players.get(1).getSeat() != (players.get(0).getSeat() + 1) % numPlayers;
+        record.put(offset + 45, (byte) (numPlayers | (reversed ? 8 : 0) | (gameOver ? 16 : 0)
+                | (suit != null ? 32 : 0)));
+        record.put(offset + 46, (byte) ((suit != null ? suit.ordinal() : 0) | effect << 2));
+        record.put(offset + 47, (byte) (players.get(0).getSeat() | (dealer != null ? dealer.getSeat() : 7) << 3));
+        record.putChar(offset + 48, (char) turn);
+        for (int seat = 0; seat < 7; seat++) {
+            record.putChar(offset + 50 + 2 * seat, (char) (seat < numPlayers ? bySeat[seat].getScore() : 0));
+        }
+    }
+
+    /**
+     * Packs the given values into consecutive 6-bit fields, lowest bits first.
+     * The number of values must be a multiple of 4.
+     * 
+     * @param buffer    the buffer to be written
+     * @param offset    the position of the first byte to be written
+     * @param values    the values from 0 to 63 to be packed
+     */
+    private static void putSixBits(ByteBuffer buffer, int offset, int[] values) {
+        long bits = 0;
+        int count = 0;
+        for (int value : values) {
+            bits |= (long) value << count;
+            count += 6;
+            while (count >= 8) {
+                buffer.put(offset++, (byte) bits);
+                bits >>>= 8;
+                count -= 8;
+            }
+        }
+    }
+
+    /**
+     * Unpacks the given number of consecutive 6-bit fields written by putSixBits.
+     * 
+     * @param buffer    the buffer to be read
+     * @param offset    the position of the first byte to be read
+     * @param length    the number of values to be read
+     * @return          the unpacked values
+     */
+    private static int[] getSixBits(ByteBuffer buffer, int offset, int length) {
+        int[] values = new int[length];
+        long bits = 0;
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            while (count < 6) {
+                bits |= (buffer.get(offset++) & 0xFFL) << count;
+                count += 8;
+            }
+            values[i] = (int) (bits & 63);
+            bits >>>= 6;
+            count -= 6;
+        }
+        return values;
+    }
+
+    /**
+     * Fills in and commits the given round event if it is being recorded.
+     * 
+     * @param roundEvent    the event begun at the start of the phase
+     * @param phase         the name of the phase which just ended
+     */
+    private void commit(RoundEvent roundEvent, String phase) {
+        roundEvent.end();
+        if (roundEvent.shouldCommit()) {
+            roundEvent.phase = phase;
+            roundEvent.players = players.size();
+            roundEvent.turns = turn;
+            roundEvent.drawPileSize = deck.getTracker().getView().getDrawPileSize();
+            roundEvent.commit();
+        }
+    }
+
+    /**
+     * Reverses the direction of play while keeping the current player first.
+     */
+    private void reverse() {
+        Collections.reverse(players);
+        Collections.rotate(players, 1);
+        deck.getTracker().reversed();
+    }
+
+    /**
+     * Retrieves the stream of events at this table, to which any number of
+     * spectators may subscribe.
+     * 
+     * @return      the publisher of this table's GameEvents
+     */
+    public GameEventPublisher getEvents() {
+        return events;
+    }
+
+    /**
+     * Ends this table, completing every spectator's feed once the events
+     * already published have been delivered. No games may be played afterwards.
+     */
+    public void close() {
+        events.close();
     }
 
     /**
@@ -141,16 +664,19 @@ public class CrazyEightsAdmin {
      * back into the deck and awards points to the player who won the last round.
      */
     public void reset() {
+        RoundEvent roundEvent = new RoundEvent();
+        roundEvent.begin();
         int score = 0;
         for (AbstractCrazyEightsPlayer p : players) {
             score += p.getHandValue();
-            deck.addPlayerHand(p.getHand());
+            p.returnCards(deck);
         }
         players.get(0).awardPoints(score);
         while (!players.get(players.size() - 1).equals(dealer)) {
             Collections.rotate(players, -1);
         }
         deck.reset();
+        commit(roundEvent, "reset");
     }
 
     /**
@@ -8,7 +8,8 @@ public class CrazyEightsMain {
         String name = getName(console);
         int players = getPlayers(console);
         console.nextLine();
-        CrazyEightsAdmin admin = new CrazyEightsAdmin(name, players, console);
+        CrazyEightsRules houseRules = getRules(console);
+        CrazyEightsAdmin admin = new CrazyEightsAdmin(name, players, console, houseRules);
         do {
             admin.deal();
             admin.play();
@@ -18,6 +19,7 @@ public class CrazyEightsMain {
         } while (menu(console).equalsIgnoreCase("Y"));
         System.out.println();
         admin.printStats("Final leaderboard:");
+        admin.close();
     }
 
     public static void rules() {
@@ -75,8 +77,42 @@ public class CrazyEightsMain {
         return players;
     }
 
+    public static CrazyEightsRules getRules(Scanner console) {
+        Set<CrazyEightsRules.Variant> variants = EnumSet.noneOf(CrazyEightsRules.Variant.class);
+        System.out.println("HOUSE RULES:");
+        System.out.println("-----------------------------------------------------");
+        for (CrazyEightsRules.Variant variant : CrazyEightsRules.Variant.values()) {
+            System.out.println(variant.getDescription() + "?");
+            if (yesOrNo(console).equalsIgnoreCase("Y")) {
+                variants.add(variant);
+            }
+        }
+        int drawLimit = getDrawLimit(console);
+        console.nextLine();
+        System.out.println();
+        return new CrazyEightsRules(variants, drawLimit);
+    }
+
+    public static int getDrawLimit(Scanner console) {
+        System.out.print("Most cards drawn in one turn (0 for no limit)? ");
+        while (!console.hasNextInt()) {
+            System.out.print("Please enter a number: ");
+            console.nextLine();
+        }
+        int drawLimit = console.nextInt();
+        if (drawLimit < 0) {
+            System.out.println("Invalid number.");
+            return getDrawLimit(console);
+        }
+        return drawLimit;
+    }
+
     public static String menu(Scanner console) {
         System.out.println("Do you want to play again?");
+        return yesOrNo(console);
+    }
+
+    public static String yesOrNo(Scanner console) {
         System.out.print("(\"Y\" for yes, \"N\" for no): ");
         String choice = console.nextLine();
         while (!choice.equalsIgnoreCase("Y") && !choice.equalsIgnoreCase("N")) {
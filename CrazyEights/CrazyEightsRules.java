@@ -0,0 +1,296 @@
+import java.util.*;
+
+/**
+ * A CrazyEightsRules holds the rule variant used for a game of Crazy Eights.
+ * The variant is compiled once into lookup tables so that finding the legal
+ * cards in a hand, and the effect of playing a card, never depends on which
+ * house rules are in use.
+ *
+ * Cards are handled as 52-bit sets in which each Card occupies the bit given
+ * by {@link Card#index()}.
+ */
+public class CrazyEightsRules {
+    /**
+     * The set of optional house rules.
+     */
+    public enum Variant {
+        DRAW_TWO_ON_TWOS("Twos make the next player draw two cards and lose their turn"),
+        SKIP_ON_QUEENS("Queens skip the next player"),
+        REVERSE_ON_ACES("Aces reverse the direction of play"),
+        EIGHTS_LAST_ONLY("Eights may only be played as a player's last card");
+
+        private String description;
+        private Variant(String description) {
+            this.description = description;
+        }
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * Effect code of a card which lets its player choose a new suit.
+     */
+    public static final int WILD = 1;
+
+    /**
+     * Effect code of a card which makes the next player draw two cards and
+     * lose their turn.
+     */
+    public static final int DRAW_TWO = 2;
+
+    /**
+     * Effect code of a card which skips the next player.
+     */
+    public static final int SKIP = 4;
+
+    /**
+     * Effect code of a card which reverses the direction of play.
+     */
+    public static final int REVERSE = 8;
+
+    /**
+     * The set containing all 52 cards.
+     */
+    public static final long ALL_CARDS = (1L << 52) - 1;
+
+    /**
+     * The set containing the four eights.
+     */
+    public static final long EIGHTS = rankMask(Card.Rank.EIGHT);
+
+    /**
+     * The points each rank counts against a hand when a game ends, indexed
+     * by ordinal: pips at face value, face cards 10, aces 1 and eights 50.
+     */
+    private static final int[] RANK_POINTS = {2, 3, 4, 5, 6, 7, 50, 9, 10, 10, 10, 10, 1};
+
+    /**
+     * The points each card counts against a hand, indexed by Card.index().
+     */
+    private static final int[] POINTS = compilePoints();
+
+    /**
+     * The number of rank slots in a table: one for each rank plus one for
+     * an eight, where only the chosen suit may be followed.
+     */
+    private static final int RANK_SLOTS = Card.Rank.values().length + 1;
+
+    /**
+     * The house rules in use.
+     */
+    private Set<Variant> variants;
+
+    /**
+     * The most cards a player may draw in a single turn, or 0 if there is no limit.
+     */
+    private int drawLimit;
+
+    /**
+     * The cards which may be played, indexed by the top card's rank slot and
+     * the suit to be played on, for a player holding more than one card.
+     */
+    private long[] legal;
+
+    /**
+     * The cards which may be played, indexed as above, for a player holding
+     * exactly one card.
+     */
+    private long[] legalLastCard;
+
+    /**
+     * The effect code of each card, indexed by the card's position in the deck.
+     */
+    private int[] effects;
+
+    /**
+     * Constructs a CrazyEightsRules for traditional Crazy Eights, where
+     * players follow suit or rank and eights are wild.
+     */
+    public CrazyEightsRules() {
+        this(EnumSet.noneOf(Variant.class), 0);
+    }
+
+    /**
+     * Constructs a CrazyEightsRules with the given house rules.
+     *
+     * @param variants      the house rules to be used
+     * @param drawLimit     the most cards a player may draw in a single turn
+     *                      before passing, or 0 if there is no limit
+     */
+    public CrazyEightsRules(Set<Variant> variants, int drawLimit) {
+        if (drawLimit < 0) {
+            throw new IllegalArgumentException("Draw limit cannot be negative: " + drawLimit);
+        }
+        this.variants = variants.isEmpty() ? EnumSet.noneOf(Variant.class) : EnumSet.copyOf(variants);
+        this.drawLimit = drawLimit;
+        compile();
+    }
+
+    /**
+     * Builds the legal move and effect tables for this rule variant.
+     */
+    private void compile() {
+        legal = new long[RANK_SLOTS * 4];
+        legalLastCard = new long[RANK_SLOTS * 4];
+        for (int slot = 0; slot < RANK_SLOTS; slot++) {
+            long followRank = slot < RANK_SLOTS - 1 ? rankMask(Card.Rank.values()[slot]) : 0;
+            for (Card.Suit suit : Card.Suit.values()) {
+                long moves = suitMask(suit) | followRank;
+                legalLastCard[slot * 4 + suit.ordinal()] = moves | EIGHTS;
+                if (variants.contains(Variant.EIGHTS_LAST_ONLY)) {
+                    legal[slot * 4 + suit.ordinal()] = moves & ~EIGHTS;
+                } else {
+                    legal[slot * 4 + suit.ordinal()] = moves | EIGHTS;
+                }
+            }
+        }
+
+        effects = new int[52];
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                int effect = 0;
+                if (rank == Card.Rank.EIGHT) {
+                    effect |= WILD;
+                } else if (rank == Card.Rank.TWO && variants.contains(Variant.DRAW_TWO_ON_TWOS)) {
+                    effect |= DRAW_TWO;
+                } else if (rank == Card.Rank.QUEEN && variants.contains(Variant.SKIP_ON_QUEENS)) {
+                    effect |= SKIP;
+                } else if (rank == Card.Rank.ACE && variants.contains(Variant.REVERSE_ON_ACES)) {
+                    effect |= REVERSE;
+                }
+                effects[suit.ordinal() * 13 + rank.ordinal()] = effect;
+            }
+        }
+    }
+
+    /**
+     * Finds the cards in the given hand which may be played on the given suit
+     * or rank.
+     *
+     * @param hand      the set of cards in the player's hand
+     * @param suit      the suit to be played on
+     * @param rank      the rank to be played on, or null if an eight was played
+     * @return          the set of cards in the hand which may be played
+     */
+    public long legalMoves(long hand, Card.Suit suit, Card.Rank rank) {
+        int slot = rank == null ? RANK_SLOTS - 1 : rank.ordinal();
+        long[] table = Long.bitCount(hand) == 1 ? legalLastCard : legal;
+        return hand & table[slot * 4 + suit.ordinal()];
+    }
+
+    /**
+     * Checks if the given card may be played from the given hand on the given
+     * suit or rank.
+     *
+     * @param card      the card to be played
+     * @param hand      the set of cards in the player's hand
+     * @param suit      the suit to be played on
+     * @param rank      the rank to be played on, or null if an eight was played
+     * @return          true if the card may be played; false otherwise
+     */
+    public boolean isLegal(Card card, long hand, Card.Suit suit, Card.Rank rank) {
+        return (legalMoves(hand, suit, rank) & card.mask()) != 0;
+    }
+
+    /**
+     * Reports the effect of playing the given card.
+     *
+     * @param card      the card being played
+     * @return          a combination of WILD, DRAW_TWO, SKIP and REVERSE, or 0
+     *                  if the card has no effect
+     */
+    public int effect(Card card) {
+        return effects[card.index()];
+    }
+
+    /**
+     * Reports the effect of playing the card at the given position in the deck.
+     *
+     * @param index     the position of the card being played, as given by Card.index()
+     * @return          a combination of WILD, DRAW_TWO, SKIP and REVERSE, or 0
+     *                  if the card has no effect
+     */
+    public int effect(int index) {
+        return effects[index];
+    }
+
+    /**
+     * Reports the points the given card counts against a hand left holding
+     * it when a game ends.
+     *
+     * @param card      the card being scored
+     * @return          the card's penalty in Crazy Eights scoring
+     */
+    public static int points(Card card) {
+        return POINTS[card.index()];
+    }
+
+    /**
+     * Reports the points the card at the given position in the deck counts
+     * against a hand left holding it when a game ends.
+     *
+     * @param index     the position of the card being scored, as given by Card.index()
+     * @return          the card's penalty in Crazy Eights scoring
+     */
+    public static int points(int index) {
+        return POINTS[index];
+    }
+
+    /**
+     * Reports the most cards a player may draw in a single turn.
+     *
+     * @return      the draw limit, or 0 if there is no limit
+     */
+    public int getDrawLimit() {
+        return drawLimit;
+    }
+
+    /**
+     * Reports the house rules in use.
+     *
+     * @return      an unmodifiable Set of the variants in use
+     */
+    public Set<Variant> getVariants() {
+        return Collections.unmodifiableSet(variants);
+    }
+
+    /**
+     * Builds the table of points by card from the points of each rank. The
+     * table is checked against the scoring rules by HandValueCheck.
+     *
+     * @return      the points of each card, indexed by Card.index()
+     */
+    private static int[] compilePoints() {
+        int ranks = Card.Rank.values().length;
+        int[] points = new int[Card.Suit.values().length * ranks];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = RANK_POINTS[i % ranks];
+        }
+        return points;
+    }
+
+    /**
+     * Gives the set of all cards of the given suit.
+     *
+     * @param suit      the suit of the cards
+     * @return          a 52-bit set of the 13 cards of the suit
+     */
+    public static long suitMask(Card.Suit suit) {
+        return 0x1FFFL << (suit.ordinal() * 13);
+    }
+
+    /**
+     * Gives the set of all cards of the given rank.
+     *
+     * @param rank      the rank of the cards
+     * @return          a 52-bit set of the 4 cards of the rank
+     */
+    public static long rankMask(Card.Rank rank) {
+        long mask = 0;
+        for (int suit = 0; suit < 4; suit++) {
+            mask |= 1L << (suit * 13 + rank.ordinal());
+        }
+        return mask;
+    }
+}
@@ -38,19 +38,10 @@ public class CrazyPlayer extends AbstractCrazyEightsPlayer {
         if (choice.equalsIgnoreCase("D")) {
             return null;
         } else {
-            return getHand().remove(Integer.parseInt(choice) - 1);
+            return remove(getHand().get(Integer.parseInt(choice) - 1));
         }
     }
 
-    public boolean canPlayOn(Card.Suit suit, Card.Rank rank) {
-        for (Card inHand : getHand()) {
-            if (inHand.suit() == suit || inHand.rank() == rank || inHand.rank() == Card.Rank.EIGHT) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Prints all of the cards in the player's hand to console.
      */
@@ -88,14 +79,10 @@ public class CrazyPlayer extends AbstractCrazyEightsPlayer {
                 return false;
             }
             Card card = getHand().get(Integer.parseInt(choice) - 1);
-            boolean suitsEightCheck = card.rank() == Card.Rank.EIGHT || card.suit() == suit;
-            if (!suitsEightCheck && (rank == null || (rank != null && card.rank() != rank))) {
+            if (!getRules().isLegal(card, getHandMask(), suit, rank)) {
                 System.out.print("This card cannot be played. Please select another or draw: ");
+                return false;
             }
-            if (rank != null) {
-                return suitsEightCheck || card.rank() == rank;
-            }
-            return suitsEightCheck;
         }
         return true;
     }
@@ -0,0 +1,34 @@
+import jdk.jfr.*;
+
+/**
+ * A DecisionEvent records the time a player takes to choose a card to play
+ * or a new suit.
+ */
+@Name("crazyeights.Decision")
+@Label("Player Decision")
+@Category("Crazy Eights")
+@Enabled(false)
+@StackTrace(false)
+public class DecisionEvent extends Event {
+    @Label("Decision")
+    @Description("Either play or chooseNewSuit")
+    String decision;
+
+    @Label("Player Class")
+    String playerClass;
+
+    @Label("Seat")
+    int seat;
+
+    @Label("Hand Size")
+    @Description("The number of cards held when asked")
+    int handSize;
+
+    @Label("Draws")
+    @Description("The number of cards drawn earlier in the same turn")
+    int draws;
+
+    @Label("Choice")
+    @Description("The card or suit chosen, or null if the player drew")
+    String choice;
+}
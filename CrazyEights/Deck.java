@@ -12,4 +12,7 @@ public interface Deck {
     public void reset();
     public void addPlayerHand(List<Card> hand);
     public Card topDiscard();
+    public CardTracker getTracker();
+    public List<Card> getDrawPile();
+    public List<Card> getDiscardPile();
 }
@@ -16,17 +16,76 @@ public class Deck52 implements Deck {
     private List<Card> discardPile;
 
     /**
-     * Constructs a new Deck52 with a draw pile and discard pile.
+     * Keeps track of the public information about where the cards are.
      */
-    public Deck52() {
+    private CardTracker tracker;
+
+    /**
+     * The source of randomness for shuffling.
+     */
+    private Random rand;
+
+    /**
+     * Constructs a new Deck52 with a draw pile and discard pile for a table
+     * with the given number of seats.
+     * 
+     * @param seats     the number of seats at the table using this deck
+     */
+    public Deck52(int seats) {
+        this(seats, new Random());
+    }
+
+    /**
+     * Constructs a new Deck52 with a draw pile and discard pile for a table
+     * with the given number of seats, shuffled by the given Random so that a
+     * seeded game can be played again card for card.
+     * 
+     * @param seats     the number of seats at the table using this deck
+     * @param rand      the source of randomness for every shuffle
+     */
+    public Deck52(int seats, Random rand) {
+        this.rand = rand;
         drawPile = new LinkedList<>();
         discardPile = new ArrayList<>();
+        tracker = new CardTracker(seats);
         for (Card.Suit s : Card.Suit.values()) {
             for (Card.Rank r : Card.Rank.values()) {
                 drawPile.add(new Card(s, r));
             }
         }
-        Collections.shuffle(drawPile);
+        Collections.shuffle(drawPile, rand);
+    }
+
+    /**
+     * Constructs a Deck52 holding the given piles for a table with the given
+     * number of seats, with any cards not in the piles being in players' hands.
+     * Later shuffles are not reproducible.
+     * 
+     * @param seats         the number of seats at the table using this deck
+     * @param drawPile      the cards to be drawn, from the top down
+     * @param discardPile   the cards played, from the most recent down
+     */
+    public Deck52(int seats, List<Card> drawPile, List<Card> discardPile) {
+        this(seats, drawPile, discardPile, new Random());
+    }
+
+    /**
+     * Constructs a Deck52 holding the given piles for a table with the given
+     * number of seats, with any cards not in the piles being in players' hands,
+     * and shuffling with the given Random so that a restored game carries on
+     * the same way each time it is restored from the same Random.
+     * 
+     * @param seats         the number of seats at the table using this deck
+     * @param drawPile      the cards to be drawn, from the top down
+     * @param discardPile   the cards played, from the most recent down
+     * @param rand          the source of randomness for every shuffle
+     */
+    public Deck52(int seats, List<Card> drawPile, List<Card> discardPile, Random rand) {
+        this.drawPile = new LinkedList<>(drawPile);
+        this.discardPile = new ArrayList<>(discardPile);
+        tracker = new CardTracker(seats);
+        tracker.restore(drawPile, discardPile);
+        this.rand = rand;
     }
 
     /**
@@ -44,6 +103,7 @@ public class Deck52 implements Deck {
      * @return      the card removed from the top of the draw pile
      */
     public Card draw() {
+        tracker.drew();
         return drawPile.remove(0);
     }
 
@@ -52,6 +112,7 @@ public class Deck52 implements Deck {
      */
     public void discard(Card card) {
         discardPile.add(0, card);
+        tracker.discarded(card);
     }
 
     /**
@@ -64,14 +125,15 @@ public class Deck52 implements Deck {
     }
 
     /**
-     * Adds all of the cards from a player's hand to the draw pile.
+     * Adds all of the cards from a player's hand to the draw pile. The hand
+     * itself is left for its player to clear.
      * 
      * @param hand      the List of Card containing all cards in a given
      *                  player's hand
      */
     public void addPlayerHand(List<Card> hand) {
+        tracker.returned(hand);
         drawPile.addAll(hand);
-        hand.clear();
     }
 
     /**
@@ -79,9 +141,17 @@ public class Deck52 implements Deck {
      * card and adds them to the draw pile, shuffling all cards.
      */
     public void reshuffle() {
+        ReshuffleEvent reshuffleEvent = new ReshuffleEvent();
+        reshuffleEvent.begin();
         Card card = discardPile.remove(0);
-        reset();
+        shuffleDiscards();
         discardPile.add(card);
+        tracker.reshuffled();
+        reshuffleEvent.end();
+        if (reshuffleEvent.shouldCommit()) {
+            reshuffleEvent.drawPileSize = drawPile.size();
+            reshuffleEvent.commit();
+        }
     }
 
     /**
@@ -89,9 +159,44 @@ public class Deck52 implements Deck {
      * pile.
      */
     public void reset() {
+        shuffleDiscards();
+        tracker.reset();
+    }
+
+    /**
+     * Reports where the cards are as far as every player can tell.
+     * 
+     * @return      the CardTracker kept up to date by this deck
+     */
+    public CardTracker getTracker() {
+        return tracker;
+    }
+
+    /**
+     * Gives the cards left to draw, from the top down.
+     * 
+     * @return      an unmodifiable view of the draw pile
+     */
+    public List<Card> getDrawPile() {
+        return Collections.unmodifiableList(drawPile);
+    }
+
+    /**
+     * Gives the cards played, from the most recent down.
+     * 
+     * @return      an unmodifiable view of the discard pile
+     */
+    public List<Card> getDiscardPile() {
+        return Collections.unmodifiableList(discardPile);
+    }
+
+    /**
+     * Moves the discard pile into the draw pile and shuffles the draw pile.
+     */
+    private void shuffleDiscards() {
         drawPile.addAll(discardPile);
         discardPile.clear();
-        Collections.shuffle(drawPile);
+        Collections.shuffle(drawPile, rand);
     }
 
     public String toString() {
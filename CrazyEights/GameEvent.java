@@ -0,0 +1,129 @@
+import java.util.*;
+
+/**
+ * A GameEvent records a single thing that happened at the table during a
+ * game of Crazy Eights, as seen by a spectator. Every event also carries the
+ * public state of the table just after it happened, so a spectator who has
+ * missed earlier events can pick up from any single one.
+ */
+public class GameEvent {
+    /**
+     * The set of things that can happen at the table.
+     */
+    public enum Type {
+        FLIPPED, PLAYED, DREW, PASSED, NEW_SUIT, GAME_OVER;
+    }
+
+    /**
+     * What happened.
+     */
+    private Type type;
+
+    /**
+     * The turn during which the event happened.
+     */
+    private int turn;
+
+    /**
+     * The name of the player involved, or null if no player was involved.
+     */
+    private String player;
+
+    /**
+     * The card that was flipped or played, or null if no card was shown.
+     */
+    private Card card;
+
+    /**
+     * The suit to be played on after the event.
+     */
+    private Card.Suit suit;
+
+    /**
+     * The card on top of the discard pile after the event.
+     */
+    private Card topCard;
+
+    /**
+     * The number of cards held by each seat after the event.
+     */
+    private int[] handSizes;
+
+    /**
+     * Constructs a GameEvent with the given details.
+     *
+     * @param type      what happened
+     * @param turn      the turn during which the event happened
+     * @param player    the player involved, or null if no player was involved
+     * @param card      the card that was flipped or played, or null if no card was shown
+     * @param suit      the suit to be played on after the event
+     * @param topCard   the card on top of the discard pile after the event
+     * @param handSizes the number of cards held by each seat after the event;
+     *                  the array is kept, not copied
+     */
+    public GameEvent(Type type, int turn, AbstractCrazyEightsPlayer player, Card card, Card.Suit suit,
+            Card topCard, int[] handSizes) {
+        this.type = type;
+        this.turn = turn;
+        this.player = player == null ? null : player.toString();
+        this.card = card;
+        this.suit = suit;
+        this.topCard = topCard;
+        this.handSizes = handSizes;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getTurn() {
+        return turn;
+    }
+
+    public String getPlayer() {
+        return player;
+    }
+
+    public Card getCard() {
+        return card;
+    }
+
+    public Card.Suit getSuit() {
+        return suit;
+    }
+
+    public Card getTopCard() {
+        return topCard;
+    }
+
+    /**
+     * Gives the number of cards held by the player in the given seat after
+     * the event.
+     *
+     * @param seat      the seat, counting from 0
+     * @return          the size of the seat's hand
+     */
+    public int getHandSize(int seat) {
+        return handSizes[seat];
+    }
+
+    /**
+     * Gives the number of seats at the table.
+     *
+     * @return      the number of players
+     */
+    public int getSeatCount() {
+        return handSizes.length;
+    }
+
+    /**
+     * Returns a String describing this GameEvent.
+     *
+     * @return      the turn, type, player, card, suit and hand sizes of this GameEvent
+     */
+    public String toString() {
+        return "Turn " + turn + ": " + type + (player == null ? "" : " by " + player)
+                + (card == null ? "" : " (" + card + ")") + ", suit is " + suit
+                + ", hands are " + Arrays.toString(handSizes);
+    }
+}
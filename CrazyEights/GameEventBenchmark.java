@@ -0,0 +1,140 @@
+import java.io.*;
+import java.lang.management.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A GameEventBenchmark checks that spectators do not slow a table down. It
+ * times the same seeded all-bot games with no spectators and with 10,000
+ * spectators spread evenly over the three overflow policies, and prints
+ * both times. Each time is given as wall-clock time and as the CPU time of
+ * the game thread alone: delivery runs on other threads, so on a machine
+ * with fewer free processors than delivery shards the wall-clock time also
+ * counts the spectators' share of the processor.
+ *
+ * Both kinds of run are warmed up first, so that neither pays for compiling
+ * the other's code paths, and then alternated for a number of rounds; the
+ * median of each is printed.
+ *
+ * Usage: java GameEventBenchmark [games [spectators [rounds]]]
+ */
+public class GameEventBenchmark {
+    /**
+     * The number of turns after which a game is stopped without a winner.
+     */
+    private static final int MAX_TURNS = 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int spectators = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        run(games, 0);
+        run(games, spectators);
+        long[][] quiet = new long[2][rounds];
+        long[][] watched = new long[2][rounds];
+        for (int round = 0; round < rounds; round++) {
+            long[] elapsed = run(games, 0);
+            quiet[0][round] = elapsed[0];
+            quiet[1][round] = elapsed[1];
+            elapsed = run(games, spectators);
+            watched[0][round] = elapsed[0];
+            watched[1][round] = elapsed[1];
+        }
+
+        out.printf("%d games with no spectators: %d ms (game thread CPU %d ms)%n",
+                games, median(quiet[0]), median(quiet[1]));
+        out.printf("%d games with %d spectators: %d ms (game thread CPU %d ms, %.2fx)%n", games, spectators,
+                median(watched[0]), median(watched[1]), (double) median(watched[1]) / median(quiet[1]));
+    }
+
+    /**
+     * Finds the median of the given times.
+     *
+     * @param times     the times, which are sorted in place
+     * @return          the middle time
+     */
+    private static long median(long[] times) {
+        Arrays.sort(times);
+        return times[times.length / 2];
+    }
+
+    /**
+     * Plays the given number of games at one table of four CrazyBots, all
+     * from the same seed, with the given number of spectators watching.
+     *
+     * @param games         the number of games to be played
+     * @param spectators    the number of spectators, spread over the
+     *                      overflow policies in turn
+     * @return              the wall-clock time and the game thread's CPU time
+     *                      taken to play the games, in milliseconds
+     * @throws InterruptedException if interrupted while waiting for the
+     *                      spectators to finish
+     * @throws IllegalStateException if a spectator missed the end of the feed
+     */
+    private static long[] run(int games, int spectators) throws InterruptedException {
+        Random rand = new Random(42);
+        List<CrazyBot> bots = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            bots.add(new CrazyBot(i, new Random(rand.nextLong())));
+        }
+        CrazyEightsAdmin admin = new CrazyEightsAdmin(bots, new CrazyEightsRules(), rand);
+        GameEventPublisher.Overflow[] policies = GameEventPublisher.Overflow.values();
+        CountDownLatch finished = new CountDownLatch(spectators);
+        for (int i = 0; i < spectators; i++) {
+            admin.getEvents().subscribe(new Spectator(finished),
+                    GameEventPublisher.DEFAULT_BUFFER_SIZE, policies[i % policies.length]);
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long start = System.nanoTime();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        for (int game = 0; game < games; game++) {
+            admin.deal();
+            admin.start();
+            for (int turn = 0; turn < MAX_TURNS && !admin.isGameOver(); turn++) {
+                admin.playTurn();
+            }
+            admin.reset();
+        }
+        long[] elapsed = {(System.nanoTime() - start) / 1000000,
+                (threads.getCurrentThreadCpuTime() - cpuStart) / 1000000};
+
+        admin.close();
+        if (!finished.await(60, TimeUnit.SECONDS)) {
+            throw new IllegalStateException(finished.getCount() + " spectators were never completed");
+        }
+        return elapsed;
+    }
+
+    /**
+     * A Spectator takes every event it is sent and reports the end of its feed.
+     */
+    private static class Spectator implements Flow.Subscriber<GameEvent> {
+        /**
+         * Counted down when the feed ends, whether completed or failed.
+         */
+        private CountDownLatch finished;
+
+        private Spectator(CountDownLatch finished) {
+            this.finished = finished;
+        }
+
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        public void onNext(GameEvent event) {
+        }
+
+        public void onError(Throwable error) {
+            finished.countDown();
+        }
+
+        public void onComplete() {
+            finished.countDown();
+        }
+    }
+}
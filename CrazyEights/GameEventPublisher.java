@@ -0,0 +1,502 @@
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A GameEventPublisher streams the GameEvents of a table to any number of
+ * spectators without letting a slow spectator hold up the game.
+ *
+ * The game thread is the only writer. Publishing stores the event in a ring
+ * and bumps a counter, so the game thread never waits on a lock or a
+ * subscriber. Delivery is driven by a single dispatch task which signals
+ * every shard once a millisecond while events keep coming, and goes idle
+ * after a quiet spell. The game thread only schedules work when the dispatch
+ * task is idle or once every BATCH events, so its cost does not grow with
+ * the number of shards or subscribers. With no subscribers, publishing does
+ * nothing. Each subscriber reads the ring with
+ * its own cursor and may fall at most its buffer size behind; past that, its
+ * Overflow policy decides what it misses.
+ *
+ * The ring and shards are only allocated on the first subscription, so a
+ * table nobody watches carries just a few counters.
+ *
+ * A subscriber which throws from onNext breaks the Flow contract; its
+ * subscription is cancelled and it is sent the exception through onError.
+ */
+public class GameEventPublisher implements Flow.Publisher<GameEvent> {
+    /**
+     * The set of ways to handle a subscriber that falls too far behind.
+     */
+    public enum Overflow {
+        /**
+         * Skip the oldest events so only the most recent buffer's worth remain.
+         */
+        DROP_OLDEST,
+        /**
+         * Skip straight to the latest event, which carries the latest state
+         * of the table.
+         */
+        COALESCE,
+        /**
+         * Cancel the subscription and signal an error.
+         */
+        DISCONNECT;
+    }
+
+    /**
+     * The buffer size given to subscribers who do not choose one.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256;
+
+    /**
+     * The number of events after which the game thread signals the shards
+     * itself rather than waiting for the next tick of the dispatch task.
+     */
+    private static final int BATCH = 64;
+
+    /**
+     * The number of empty ticks after which the dispatch task goes idle.
+     */
+    private static final int LINGER_TICKS = 50;
+
+    /**
+     * The most recent events, indexed by sequence number modulo the capacity;
+     * null until the first subscription.
+     */
+    private AtomicReferenceArray<GameEvent> ring;
+
+    /**
+     * One less than the capacity of the ring, which is a power of two.
+     */
+    private int mask;
+
+    /**
+     * The number of events published so far.
+     */
+    private AtomicLong published;
+
+    /**
+     * The groups of subscriptions, each delivered to independently; null
+     * until the first subscription.
+     */
+    private volatile Shard[] shards;
+
+    /**
+     * The number of shards to create on the first subscription.
+     */
+    private int shardCount;
+
+    /**
+     * The number of subscriptions made so far, used to spread them across shards.
+     */
+    private AtomicInteger subscriptions;
+
+    /**
+     * The number of active subscriptions across every shard.
+     */
+    private AtomicInteger active;
+
+    /**
+     * Tracks whether or not the dispatch task is running.
+     */
+    private AtomicBoolean dispatching;
+
+    /**
+     * Runs the deliveries to subscribers.
+     */
+    private Executor executor;
+
+    /**
+     * Runs the dispatch task's next tick on the executor a millisecond later;
+     * null until the first subscription.
+     */
+    private Executor ticker;
+
+    /**
+     * Tracks whether or not the publisher has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Constructs a GameEventPublisher which delivers on the common pool, one
+     * shard per processor, and remembers the last 1024 events.
+     */
+    public GameEventPublisher() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors(), 1024);
+    }
+
+    /**
+     * Constructs a GameEventPublisher which delivers on the given Executor.
+     *
+     * @param executor      the Executor to run deliveries to subscribers
+     * @param shardCount    the number of groups of subscribers which may be
+     *                      delivered to at the same time
+     * @param capacity      the number of events remembered, rounded up to a
+     *                      power of two of at least 2; a subscriber may fall
+     *                      at most one less than this behind
+     */
+    public GameEventPublisher(Executor executor, int shardCount, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+        int size = Math.max(2, Integer.highestOneBit(capacity));
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.shardCount = shardCount;
+        this.published = new AtomicLong();
+        this.subscriptions = new AtomicInteger();
+        this.active = new AtomicInteger();
+        this.dispatching = new AtomicBoolean();
+        this.executor = executor;
+    }
+
+    /**
+     * Allocates the ring, the shards and the dispatch ticker if this is the
+     * first subscription.
+     *
+     * @return      the shards
+     */
+    private synchronized Shard[] start() {
+        if (shards == null) {
+            ring = new AtomicReferenceArray<>(mask + 1);
+            ticker = CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS, executor);
+            Shard[] created = new Shard[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                created[i] = new Shard();
+            }
+            shards = created;
+        }
+        return shards;
+    }
+
+    /**
+     * Subscribes the given subscriber with the default buffer size, dropping
+     * the oldest events if it falls behind.
+     *
+     * @param subscriber    the subscriber to receive events
+     */
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        subscribe(subscriber, Math.min(DEFAULT_BUFFER_SIZE, mask), Overflow.DROP_OLDEST);
+    }
+
+    /**
+     * Subscribes the given subscriber to events published from now on.
+     *
+     * @param subscriber    the subscriber to receive events
+     * @param bufferSize    the most events the subscriber may fall behind
+     * @param overflow      what to do when the subscriber falls further behind
+     */
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber, int bufferSize, Overflow overflow) {
+        if (bufferSize < 1 || bufferSize > mask) {
+            throw new IllegalArgumentException("Buffer size must be between 1 and " + mask + ": " + bufferSize);
+        }
+        Shard[] started = start();
+        Shard shard = started[Math.floorMod(subscriptions.getAndIncrement(), started.length)];
+        Feed feed = new Feed(shard, subscriber, bufferSize, overflow);
+        subscriber.onSubscribe(feed);
+        if (!feed.cancelled) {
+            shard.feeds.add(feed);
+            active.incrementAndGet();
+            if (feed.cancelled) {
+                feed.cancel();
+            }
+            shard.signal();
+        }
+    }
+
+    /**
+     * Publishes the given event to every subscriber, or does nothing if
+     * there are none. Only the game thread may publish.
+     *
+     * @param event     the event to be published
+     */
+    public void publish(GameEvent event) {
+        if (active.get() == 0) {
+            return;
+        }
+        long sequence = published.get();
+        ring.lazySet((int) sequence & mask, event);
+        published.set(sequence + 1);
+        if (!dispatching.get()) {
+            if (dispatching.compareAndSet(false, true)) {
+                executor.execute(() -> dispatch(sequence, 0));
+            }
+        } else if ((sequence + 1) % BATCH == 0) {
+            executor.execute(this::signalShards);
+        }
+    }
+
+    /**
+     * Reports whether or not anyone is subscribed, so that the game thread
+     * can skip building events nobody will receive.
+     *
+     * @return      true if there is at least one active subscription; false otherwise
+     */
+    public boolean hasSubscribers() {
+        return active.get() != 0;
+    }
+
+    /**
+     * Runs one tick of the dispatch task: signals the shards if anything was
+     * published since the last tick, then schedules the next tick, or goes
+     * idle once nothing has been published for LINGER_TICKS ticks or the
+     * publisher is closed.
+     *
+     * @param seen          the number of events published at the last tick
+     * @param idleTicks     the number of ticks in a row with nothing published
+     */
+    private void dispatch(long seen, int idleTicks) {
+        long end = published.get();
+        int idle = end == seen ? idleTicks + 1 : 0;
+        if (idle == 0) {
+            signalShards();
+        }
+        if (idle < LINGER_TICKS && !closed) {
+            ticker.execute(() -> dispatch(end, idle));
+            return;
+        }
+        dispatching.set(false);
+        if (published.get() != end && dispatching.compareAndSet(false, true)) {
+            dispatch(end, 0);
+        }
+    }
+
+    /**
+     * Signals every shard which has subscribers.
+     */
+    private void signalShards() {
+        Shard[] started = shards;
+        if (started == null) {
+            return;
+        }
+        for (Shard shard : started) {
+            if (!shard.feeds.isEmpty()) {
+                shard.signal();
+            }
+        }
+    }
+
+    /**
+     * Completes every subscription once its remaining events are delivered.
+     * No events may be published afterwards.
+     */
+    public void close() {
+        closed = true;
+        signalShards();
+    }
+
+    /**
+     * Reports the number of active subscriptions.
+     *
+     * @return      the number of subscribers still receiving events
+     */
+    public int getSubscriberCount() {
+        Shard[] started = shards;
+        int count = 0;
+        if (started != null) {
+            for (Shard shard : started) {
+                count += shard.feeds.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * A Shard is a group of subscriptions delivered to by at most one task
+     * at a time, so that each of its subscribers is signalled serially.
+     */
+    private class Shard {
+        /**
+         * Every active subscription in this shard.
+         */
+        private CopyOnWriteArrayList<Feed> feeds = new CopyOnWriteArrayList<>();
+
+        /**
+         * The number of delivery requests not yet handled; delivery is running
+         * whenever this is above zero.
+         */
+        private AtomicInteger pending = new AtomicInteger();
+
+        /**
+         * Schedules a delivery to this shard unless one is already running,
+         * in which case that delivery makes another pass.
+         */
+        private void signal() {
+            if (pending.getAndIncrement() == 0) {
+                executor.execute(this::deliver);
+            }
+        }
+
+        /**
+         * Delivers events to every subscriber in this shard until no more
+         * requests are pending.
+         */
+        private void deliver() {
+            int missed = 1;
+            do {
+                for (Feed feed : feeds) {
+                    feed.drain();
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+    /**
+     * A Feed is one subscriber's subscription, holding its cursor into the
+     * ring and its outstanding demand. Only its shard's running delivery
+     * reads the ring on a Feed's behalf, so its subscriber is signalled one
+     * event at a time.
+     */
+    private class Feed implements Flow.Subscription {
+        /**
+         * The shard which delivers to this subscription.
+         */
+        private Shard shard;
+
+        /**
+         * The subscriber receiving events.
+         */
+        private Flow.Subscriber<? super GameEvent> subscriber;
+
+        /**
+         * The most events the subscriber may fall behind.
+         */
+        private int bufferSize;
+
+        /**
+         * What to do when the subscriber falls further behind.
+         */
+        private Overflow overflow;
+
+        /**
+         * The sequence number of the next event to deliver.
+         */
+        private long cursor;
+
+        /**
+         * The number of events requested but not yet delivered.
+         */
+        private AtomicLong demand;
+
+        /**
+         * Set when the subscriber asks for a non-positive number of events.
+         */
+        private volatile boolean invalidRequest;
+
+        /**
+         * Tracks whether or not the subscription has ended.
+         */
+        private volatile boolean cancelled;
+
+        private Feed(Shard shard, Flow.Subscriber<? super GameEvent> subscriber, int bufferSize, Overflow overflow) {
+            this.shard = shard;
+            this.subscriber = subscriber;
+            this.bufferSize = bufferSize;
+            this.overflow = overflow;
+            this.cursor = published.get();
+            this.demand = new AtomicLong();
+        }
+
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = true;
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            shard.signal();
+        }
+
+        public void cancel() {
+            cancelled = true;
+            if (shard.feeds.remove(this)) {
+                active.decrementAndGet();
+            }
+        }
+
+        /**
+         * Delivers as many events as the subscriber has requested, first
+         * applying the overflow policy if the subscriber has fallen behind.
+         * An event is only handed on if it was read before the publisher
+         * could have overwritten its slot. If the subscriber throws, it is
+         * cancelled and sent the exception through onError.
+         */
+        private void drain() {
+            if (cancelled) {
+                return;
+            }
+            if (invalidRequest) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Requests must be positive"));
+                return;
+            }
+            try {
+                long requested = demand.get();
+                long sent = 0;
+                while (sent < requested) {
+                    long end = published.get();
+                    if (end - cursor > bufferSize && !catchUp(end)) {
+                        return;
+                    }
+                    if (cursor == end) {
+                        break;
+                    }
+                    GameEvent event = ring.get((int) cursor & mask);
+                    if (published.get() - cursor > mask) {
+                        continue;
+                    }
+                    cursor++;
+                    sent++;
+                    subscriber.onNext(event);
+                    if (cancelled) {
+                        return;
+                    }
+                }
+                if (sent > 0 && requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-sent);
+                }
+                long end = published.get();
+                if (end - cursor > bufferSize && !catchUp(end)) {
+                    return;
+                }
+                if (closed && cursor == end) {
+                    cancel();
+                    subscriber.onComplete();
+                }
+            } catch (RuntimeException e) {
+                cancel();
+                try {
+                    subscriber.onError(e);
+                } catch (RuntimeException ignored) {
+                }
+            }
+        }
+
+        /**
+         * Applies the overflow policy to a subscriber which has fallen more
+         * than its buffer size behind.
+         *
+         * @param end       the number of events published so far
+         * @return          true if the subscriber is still subscribed; false otherwise
+         */
+        private boolean catchUp(long end) {
+            switch (overflow) {
+                case DROP_OLDEST:
+                    cursor = end - bufferSize;
+                    return true;
+                case COALESCE:
+                    cursor = end - 1;
+                    return true;
+                default:
+                    cancel();
+                    subscriber.onError(new IllegalStateException("Subscriber fell more than "
+                            + bufferSize + " events behind"));
+                    return false;
+            }
+        }
+    }
+}
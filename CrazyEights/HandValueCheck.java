@@ -0,0 +1,128 @@
+import java.util.*;
+
+/**
+ * A HandValueCheck checks the points table in CrazyEightsRules and the hand
+ * values a player keeps up to date as cards come and go. Every card's entry
+ * in the table is compared with the scoring rules worked out rank by rank,
+ * and a player's hand values are compared with a fresh count of its hand
+ * after each step of many random sequences of adding, playing, clearing and
+ * returning cards to a deck. The hand a player hands out must also refuse
+ * changes made behind the player's back.
+ *
+ * Usage: java HandValueCheck [sequences [seed]]
+ */
+public class HandValueCheck {
+    /**
+     * The number of steps in each random sequence.
+     */
+    private static final int STEPS = 200;
+
+    public static void main(String[] args) {
+        int sequences = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+        checkTable();
+        Random rand = new Random(seed);
+        for (int i = 0; i < sequences; i++) {
+            checkSequence(new Random(rand.nextLong()));
+        }
+        System.out.printf("52 card points and %d sequences of %d steps checked%n", sequences, STEPS);
+    }
+
+    /**
+     * Compares every card's points in the table with the scoring rules.
+     *
+     * @throws IllegalStateException if a card's points break the rules
+     */
+    private static void checkTable() {
+        for (int i = 0; i < 52; i++) {
+            Card card = Card.fromIndex(i);
+            if (CrazyEightsRules.points(i) != expectedPoints(card)
+                    || CrazyEightsRules.points(card) != expectedPoints(card)) {
+                throw new IllegalStateException("The " + card + " is worth " + CrazyEightsRules.points(i)
+                        + " points but the scoring rules give " + expectedPoints(card));
+            }
+        }
+    }
+
+    /**
+     * Plays a random sequence of changes to one bot's hand, checking its
+     * hand values after each one.
+     *
+     * @param rand      the source of the sequence
+     * @throws IllegalStateException if a hand value is wrong
+     */
+    private static void checkSequence(Random rand) {
+        CrazyBot bot = new CrazyBot(0, new Random(rand.nextLong()));
+        Deck deck = new Deck52(1, new ArrayList<>(), new ArrayList<>());
+        Card.Suit[] suits = Card.Suit.values();
+        Card.Rank[] ranks = Card.Rank.values();
+        for (int step = 0; step < STEPS; step++) {
+            int move = rand.nextInt(20);
+            if (move == 0) {
+                bot.clear();
+            } else if (move == 1) {
+                bot.returnCards(deck);
+            } else if (move < 12 || bot.isOut()) {
+                Card card = Card.fromIndex(rand.nextInt(52));
+                if ((bot.getHandMask() & card.mask()) == 0) {
+                    bot.add(card);
+                }
+            } else {
+                bot.play(suits[rand.nextInt(suits.length)], ranks[rand.nextInt(ranks.length)]);
+            }
+            checkHand(bot);
+        }
+        try {
+            bot.getHand().clear();
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        throw new IllegalStateException("A player's hand can be changed without the player");
+    }
+
+    /**
+     * Compares the given player's hand values with a fresh count of its hand.
+     *
+     * @param player    the player to be checked
+     * @throws IllegalStateException if a hand value is wrong
+     */
+    private static void checkHand(AbstractCrazyEightsPlayer player) {
+        int total = 0;
+        int[] bySuit = new int[Card.Suit.values().length];
+        for (Card card : player.getHand()) {
+            total += expectedPoints(card);
+            bySuit[card.suit().ordinal()] += expectedPoints(card);
+        }
+        if (player.getHandValue() != total) {
+            throw new IllegalStateException("A hand of " + player.getHand() + " is valued at "
+                    + player.getHandValue() + " points but is worth " + total);
+        }
+        for (Card.Suit suit : Card.Suit.values()) {
+            if (player.getHandValue(suit) != bySuit[suit.ordinal()]) {
+                throw new IllegalStateException("The " + suit + " in a hand of " + player.getHand()
+                        + " are valued at " + player.getHandValue(suit) + " points but are worth "
+                        + bySuit[suit.ordinal()]);
+            }
+        }
+    }
+
+    /**
+     * Gives the points a card counts against a hand under the scoring rules:
+     * aces are worth 1, eights 50, face cards 10 and every other card its
+     * face value.
+     *
+     * @param card      the card to be scored
+     * @return          the card's points
+     */
+    private static int expectedPoints(Card card) {
+        if (card.rank() == Card.Rank.ACE) {
+            return 1;
+        } else if (card.rank() == Card.Rank.EIGHT) {
+            return 50;
+        } else if (card.rank().ordinal() > 8) {
+            return 10;
+        } else {
+            return card.rank().ordinal() + 2;
+        }
+    }
+}
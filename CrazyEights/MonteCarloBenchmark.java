@@ -0,0 +1,64 @@
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A MonteCarloBenchmark shows how a MonteCarloBot's play improves with the
+ * number of processors it searches on, for sizing the machines that host
+ * it. At each pool size from 1 up, doubling, it plays the same seeded games
+ * of one MonteCarloBot against CrazyBots and prints the bot's win rate and
+ * playout rate.
+ *
+ * Usage: java MonteCarloBenchmark [games [millis [maxParallelism [seats]]]]
+ */
+public class MonteCarloBenchmark {
+    /**
+     * The number of turns after which a game is stopped without a winner.
+     */
+    private static final int MAX_TURNS = 1000;
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        int maxParallelism = args.length > 2 ? Integer.parseInt(args[2])
+                : Math.max(4, Runtime.getRuntime().availableProcessors());
+        int seats = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        out.printf("%d games of 1 MonteCarloBot against %d CrazyBots, %d ms per decision, %d processors%n",
+                games, seats - 1, millis, Runtime.getRuntime().availableProcessors());
+        out.printf("%8s %10s %12s %14s%n", "workers", "win rate", "std error", "playouts/s");
+        for (int parallelism = 1; parallelism <= maxParallelism; parallelism *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            long wins = 0;
+            long playouts = 0;
+            long nanos = 0;
+            for (int game = 0; game < games; game++) {
+                Random rand = new Random(SimulationWorker.gameSeed(42, game));
+                MonteCarloBot bot = new MonteCarloBot(0, millis, pool, new SplittableRandom(rand.nextLong()));
+                List<AbstractCrazyEightsPlayer> seated = new ArrayList<>();
+                seated.add(bot);
+                for (int i = 1; i < seats; i++) {
+                    seated.add(new CrazyBot(i, new Random(rand.nextLong())));
+                }
+                CrazyEightsAdmin admin = new CrazyEightsAdmin(seated, new CrazyEightsRules(), rand);
+                admin.deal();
+                admin.start();
+                for (int turn = 0; turn < MAX_TURNS && !admin.isGameOver(); turn++) {
+                    admin.playTurn();
+                }
+                if (bot.isOut()) {
+                    wins++;
+                }
+                playouts += bot.getTotalPlayouts();
+                nanos += bot.getTotalSearchNanos();
+            }
+            pool.shutdown();
+            double winRate = (double) wins / games;
+            out.printf("%8d %10.3f %12.3f %14.0f%n", parallelism, winRate,
+                    Math.sqrt(winRate * (1 - winRate) / games), nanos == 0 ? 0 : playouts * 1e9 / nanos);
+        }
+        out.printf("A bot winning its share would win %.3f%n", 1.0 / seats);
+    }
+}
@@ -0,0 +1,549 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A MonteCarloBot is a strong bot which tries each of its choices by playing
+ * out many random games from the current position. In each playout the cards
+ * it cannot see are dealt at random to match what is publicly known, and all
+ * players then play random legal cards until someone goes out. The bot picks
+ * the choice which won the most often.
+ *
+ * Playouts are spread across a ForkJoinPool until the time budget runs out,
+ * with each worker adding its results to shared per-choice counters. Many
+ * bots may share one pool; a bot which made its own pool shuts it down
+ * when closed.
+ */
+public class MonteCarloBot extends AbstractCrazyEightsPlayer {
+    /**
+     * The number of turns after which a playout is abandoned as a loss.
+     */
+    private static final int MAX_TURNS = 400;
+
+    /**
+     * The possible suits, copied once to avoid copying in every playout.
+     */
+    private static final Card.Suit[] SUITS = Card.Suit.values();
+
+    /**
+     * The possible ranks, copied once to avoid copying in every playout.
+     */
+    private static final Card.Rank[] RANKS = Card.Rank.values();
+
+    /**
+     * The workers which play out games.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Tracks whether or not this bot made its pool, and so must shut it down.
+     */
+    private boolean ownsPool;
+
+    /**
+     * The time allowed for each decision, in nanoseconds.
+     */
+    private long budget;
+
+    /**
+     * The source of randomness, split into one generator per worker.
+     */
+    private SplittableRandom rand;
+
+    /**
+     * What every player can see at the table during the bot's current turn,
+     * kept for choosing a suit after an eight; null outside a turn played
+     * with a view of the table.
+     */
+    private TableView table;
+
+    /**
+     * The number of playouts run for the last decision.
+     */
+    private long lastPlayouts;
+
+    /**
+     * The time taken by the last decision, in nanoseconds.
+     */
+    private long lastNanos;
+
+    /**
+     * The number of playouts run over every search so far.
+     */
+    private long totalPlayouts;
+
+    /**
+     * The time spent in every search so far, in nanoseconds.
+     */
+    private long totalNanos;
+
+    /**
+     * A summary of the choices considered in the last decision.
+     */
+    private String lastReport;
+
+    /**
+     * Constructs a MonteCarloBot which searches on every processor for the
+     * given time per decision.
+     *
+     * @param n         a number specifying which number bot this is
+     * @param millis    the time allowed for each decision, in milliseconds
+     */
+    public MonteCarloBot(int n, long millis) {
+        this(n, millis, Runtime.getRuntime().availableProcessors(), new SplittableRandom());
+    }
+
+    /**
+     * Constructs a MonteCarloBot which searches with the given number of
+     * workers for the given time per decision.
+     *
+     * @param n             a number specifying which number bot this is
+     * @param millis        the time allowed for each decision, in milliseconds
+     * @param parallelism   the number of workers playing out games at once
+     * @param rand          the source of randomness for playouts
+     */
+    public MonteCarloBot(int n, long millis, int parallelism, SplittableRandom rand) {
+        this(n, millis, new ForkJoinPool(parallelism), rand);
+        this.ownsPool = true;
+    }
+
+    /**
+     * Constructs a MonteCarloBot which searches on the given pool for the
+     * given time per decision, using every worker of the pool. The pool is
+     * left running when the bot is closed, so it can be shared by the bots
+     * of many tables.
+     *
+     * @param n         a number specifying which number bot this is
+     * @param millis    the time allowed for each decision, in milliseconds
+     * @param pool      the workers which play out games
+     * @param rand      the source of randomness for playouts
+     */
+    public MonteCarloBot(int n, long millis, ForkJoinPool pool, SplittableRandom rand) {
+        super("Monte Carlo Bot " + n);
+        this.pool = pool;
+        this.budget = TimeUnit.MILLISECONDS.toNanos(millis);
+        this.rand = rand;
+        this.lastReport = "";
+    }
+
+    public Card play(Card.Suit suit, Card.Rank rank, TableView table) {
+        this.table = table;
+        return choose(suit, rank, table);
+    }
+
+    public Card play(Card.Suit suit, Card.Rank rank) {
+        this.table = null;
+        return choose(suit, rank, null);
+    }
+
+    public Card.Suit chooseNewSuit() {
+        TableView view = table;
+        if (view == null) {
+            return SUITS[favoriteSuit(getHandMask())];
+        }
+        int[] candidates = new int[SUITS.length];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = i;
+        }
+        return SUITS[search(candidates, true, view)];
+    }
+
+    public void clear() {
+        super.clear();
+        table = null;
+    }
+
+    /**
+     * Chooses a card to play, searching when there is more than one legal
+     * card and the table can be seen.
+     *
+     * @param suit      the suit to be played on
+     * @param rank      the rank to be played on
+     * @param view      what every player can see at the table, or null if
+     *                  the bot plays without searching
+     * @return          the card played, or null if no card can be played
+     */
+    private Card choose(Card.Suit suit, Card.Rank rank, TableView view) {
+        long legal = legalMoves(suit, rank);
+        if (legal == 0) {
+            return null;
+        }
+        int[] candidates = new int[Long.bitCount(legal)];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = Long.numberOfTrailingZeros(legal);
+            legal &= legal - 1;
+        }
+        int choice = candidates[0];
+        if (candidates.length > 1 && view != null) {
+            choice = candidates[search(candidates, false, view)];
+        }
+        for (Card card : getHand()) {
+            if (card.index() == choice) {
+                return remove(card);
+            }
+        }
+        throw new IllegalStateException("Chosen card is not in " + this + "'s hand");
+    }
+
+    /**
+     * Reports the number of playouts per second reached in the last decision.
+     *
+     * @return      the playout rate, or 0 if the bot has not searched yet
+     */
+    public double getPlayoutsPerSecond() {
+        return lastNanos == 0 ? 0 : lastPlayouts * 1e9 / lastNanos;
+    }
+
+    /**
+     * Reports the number of playouts run over every decision so far.
+     *
+     * @return      the number of games played out
+     */
+    public long getTotalPlayouts() {
+        return totalPlayouts;
+    }
+
+    /**
+     * Reports the time spent searching over every decision so far.
+     *
+     * @return      the search time, in nanoseconds
+     */
+    public long getTotalSearchNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Shuts down the bot's pool if the bot made it. A shared pool is left
+     * running. The bot must not be asked to play afterwards.
+     */
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Reports the number of playouts run in the last decision.
+     *
+     * @return      the number of games played out
+     */
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * Describes the last decision: the win rate and number of playouts of
+     * each choice, and the overall playout rate.
+     *
+     * @return      a one-line summary of the last search
+     */
+    public String getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Plays out games from each candidate choice until the time budget runs
+     * out and reports the one which won the most often.
+     *
+     * @param candidates    the card indices, or suit ordinals, to choose from
+     * @param suitChoice    true if choosing a new suit; false if choosing a card
+     * @param view          what every player can see at the table
+     * @return              the position of the best choice in candidates
+     */
+    private int search(int[] candidates, boolean suitChoice, TableView view) {
+        LongAdder[] visits = new LongAdder[candidates.length];
+        LongAdder[] wins = new LongAdder[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            visits[i] = new LongAdder();
+            wins[i] = new LongAdder();
+        }
+        long start = System.nanoTime();
+        long deadline = start + budget;
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int w = 0; w < pool.getParallelism(); w++) {
+            SplittableRandom workerRand = rand.split();
+            int first = w;
+            workers.add(() -> {
+                Playout playout = new Playout(workerRand, view);
+                int next = first;
+                do {
+                    int i = next++ % candidates.length;
+                    playout.deal();
+                    if (suitChoice) {
+                        playout.chooseSuit(candidates[i]);
+                    } else {
+                        playout.discard(candidates[i]);
+                    }
+                    if (playout.finish() == getSeat()) {
+                        wins[i].increment();
+                    }
+                    visits[i].increment();
+                } while (System.nanoTime() < deadline);
+                return null;
+            });
+        }
+        for (Future<Void> result : pool.invokeAll(workers)) {
+            try {
+                result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Playout failed", e.getCause());
+            }
+        }
+
+        lastNanos = System.nanoTime() - start;
+        lastPlayouts = 0;
+        int best = 0;
+        double bestRate = -1;
+        StringBuilder report = new StringBuilder();
+        for (int i = 0; i < candidates.length; i++) {
+            long n = visits[i].sum();
+            double rate = n == 0 ? 0 : (double) wins[i].sum() / n;
+            lastPlayouts += n;
+            if (rate > bestRate) {
+                best = i;
+                bestRate = rate;
+            }
+            report.append(suitChoice ? SUITS[candidates[i]] : Card.fromIndex(candidates[i]))
+                    .append(String.format(": %.3f over %d, ", rate, n));
+        }
+        totalPlayouts += lastPlayouts;
+        totalNanos += lastNanos;
+        report.append(String.format("%.0f playouts/s on %d workers", getPlayoutsPerSecond(), pool.getParallelism()));
+        lastReport = report.toString();
+        return best;
+    }
+
+    /**
+     * Finds the suit of which the given hand holds the most cards, not
+     * counting eights.
+     *
+     * @param hand      the set of cards in the hand
+     * @return          the ordinal of the suit
+     */
+    private static int favoriteSuit(long hand) {
+        int best = 0;
+        int most = -1;
+        for (int s = 0; s < SUITS.length; s++) {
+            int count = Long.bitCount(hand & CrazyEightsRules.suitMask(SUITS[s]) & ~CrazyEightsRules.EIGHTS);
+            if (count > most) {
+                best = s;
+                most = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A Playout is one worker's copy of the table, dealt afresh for each
+     * game it plays out. Hands are 52-bit sets indexed by seat.
+     */
+    private class Playout {
+        /**
+         * This worker's own source of randomness.
+         */
+        private SplittableRandom rand;
+
+        /**
+         * What every player can see at the table being played out.
+         */
+        private TableView view;
+
+        /**
+         * The cards held by each seat.
+         */
+        private long[] hands;
+
+        /**
+         * The draw pile, with the top card last.
+         */
+        private int[] drawPile;
+
+        /**
+         * The number of cards in the draw pile.
+         */
+        private int drawPileSize;
+
+        /**
+         * The cards in the discard pile.
+         */
+        private long discards;
+
+        /**
+         * The index of the card on top of the discard pile.
+         */
+        private int top;
+
+        /**
+         * The ordinal of the suit to be played on.
+         */
+        private int suit;
+
+        /**
+         * The seat of the player whose turn it is.
+         */
+        private int seat;
+
+        /**
+         * The step from one seat to the next: 1, or -1 when play is reversed.
+         */
+        private int direction;
+
+        /**
+         * The effect of the last card played, not yet applied to the next player.
+         */
+        private int effect;
+
+        private Playout(SplittableRandom rand, TableView view) {
+            this.rand = rand;
+            this.view = view;
+            this.hands = new long[view.getSeatCount()];
+            this.drawPile = new int[52];
+        }
+
+        /**
+         * Deals the cards the bot cannot see at random, keeping each
+         * opponent's hand size and known cards.
+         */
+        private void deal() {
+            long mine = getHandMask();
+            discards = view.getDiscards();
+            long unknown = CrazyEightsRules.ALL_CARDS & ~mine & ~discards;
+            for (int s = 0; s < hands.length; s++) {
+                if (s != getSeat()) {
+                    unknown &= ~view.getKnown(s);
+                }
+            }
+            int count = 0;
+            for (long bits = unknown; bits != 0; bits &= bits - 1) {
+                drawPile[count++] = Long.numberOfTrailingZeros(bits);
+            }
+            for (int i = count - 1; i > 0; i--) {
+                int j = rand.nextInt(i + 1);
+                int card = drawPile[i];
+                drawPile[i] = drawPile[j];
+                drawPile[j] = card;
+            }
+            for (int s = 0; s < hands.length; s++) {
+                if (s == getSeat()) {
+                    hands[s] = mine;
+                } else {
+                    hands[s] = view.getKnown(s);
+                    int missing = view.getHandSize(s) - Long.bitCount(hands[s]);
+                    while (missing-- > 0 && count > 0) {
+                        hands[s] |= 1L << drawPile[--count];
+                    }
+                }
+            }
+            drawPileSize = count;
+            top = Long.numberOfTrailingZeros(view.getTopDiscard());
+            seat = getSeat();
+            direction = view.isReversed() ? -1 : 1;
+            effect = 0;
+        }
+
+        /**
+         * Sets the suit chosen after the bot's eight.
+         */
+        private void chooseSuit(int chosen) {
+            suit = chosen;
+        }
+
+        /**
+         * Plays out the rest of the game with random legal cards.
+         *
+         * @return      the seat of the winner, or -1 if the game was abandoned
+         */
+        private int finish() {
+            if (hands[seat] == 0) {
+                return seat;
+            }
+            int drawLimit = getRules().getDrawLimit();
+            for (int turn = 0; turn < MAX_TURNS; turn++) {
+                seat = next();
+                if ((effect & CrazyEightsRules.DRAW_TWO) != 0) {
+                    for (int i = 0; i < 2; i++) {
+                        draw();
+                    }
+                }
+                if ((effect & (CrazyEightsRules.DRAW_TWO | CrazyEightsRules.SKIP)) != 0) {
+                    seat = next();
+                }
+                Card.Rank rank = top % 13 == Card.Rank.EIGHT.ordinal() ? null : RANKS[top % 13];
+                long legal = getRules().legalMoves(hands[seat], SUITS[suit], rank);
+                int draws = 0;
+                while (legal == 0 && (drawLimit == 0 || draws < drawLimit) && draw()) {
+                    draws++;
+                    legal = getRules().legalMoves(hands[seat], SUITS[suit], rank);
+                }
+                if (legal == 0) {
+                    effect = 0;
+                    continue;
+                }
+                long plain = legal & ~CrazyEightsRules.EIGHTS;
+                discard(pick(plain != 0 ? plain : legal));
+                if (hands[seat] == 0) {
+                    return seat;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Moves the given card from the current seat's hand to the discard
+         * pile and applies its effect.
+         */
+        private void discard(int card) {
+            hands[seat] &= ~(1L << card);
+            discards |= 1L << card;
+            top = card;
+            effect = getRules().effect(card);
+            suit = (effect & CrazyEightsRules.WILD) != 0 ? favoriteSuit(hands[seat]) : card / 13;
+            if ((effect & CrazyEightsRules.REVERSE) != 0) {
+                direction = -direction;
+            }
+        }
+
+        /**
+         * Moves the top card of the draw pile to the current seat's hand,
+         * reshuffling the discards first if the draw pile is empty.
+         *
+         * @return      true if a card was drawn; false if none were left
+         */
+        private boolean draw() {
+            if (drawPileSize == 0) {
+                for (long bits = discards & ~(1L << top); bits != 0; bits &= bits - 1) {
+                    int j = rand.nextInt(drawPileSize + 1);
+                    drawPile[drawPileSize] = drawPile[j];
+                    drawPile[j] = Long.numberOfTrailingZeros(bits);
+                    drawPileSize++;
+                }
+                discards = 1L << top;
+                if (drawPileSize == 0) {
+                    return false;
+                }
+            }
+            hands[seat] |= 1L << drawPile[--drawPileSize];
+            return true;
+        }
+
+        /**
+         * Picks one of the given cards at random.
+         */
+        private int pick(long cards) {
+            for (int skip = rand.nextInt(Long.bitCount(cards)); skip > 0; skip--) {
+                cards &= cards - 1;
+            }
+            return Long.numberOfTrailingZeros(cards);
+        }
+
+        /**
+         * Gives the seat whose turn follows the current seat's.
+         */
+        private int next() {
+            return Math.floorMod(seat + direction, hands.length);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+import jdk.jfr.*;
+
+/**
+ * A PassEvent records a player being forced to pass because no cards were
+ * left to draw or they reached the draw limit.
+ */
+@Name("crazyeights.Pass")
+@Label("Forced Pass")
+@Category("Crazy Eights")
+@Enabled(false)
+@StackTrace(false)
+public class PassEvent extends Event {
+    @Label("Seat")
+    int seat;
+
+    @Label("Hand Size")
+    int handSize;
+
+    @Label("Draws")
+    @Description("The number of cards drawn earlier in the same turn")
+    int draws;
+
+    @Label("Draw Pile Size")
+    int drawPileSize;
+}
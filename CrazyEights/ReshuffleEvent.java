@@ -0,0 +1,16 @@
+import jdk.jfr.*;
+
+/**
+ * A ReshuffleEvent records the discard pile being shuffled back into an
+ * empty draw pile.
+ */
+@Name("crazyeights.Reshuffle")
+@Label("Reshuffle")
+@Category("Crazy Eights")
+@Enabled(false)
+@StackTrace(false)
+public class ReshuffleEvent extends Event {
+    @Label("Draw Pile Size")
+    @Description("The number of cards left to draw after the reshuffle")
+    int drawPileSize;
+}
@@ -0,0 +1,28 @@
+import jdk.jfr.*;
+
+/**
+ * A RoundEvent records one phase of a round of Crazy Eights in a Java
+ * Flight Recorder recording. It is disabled unless a recording turns it on,
+ * for example with the bundled crazyeights.jfc settings.
+ */
+@Name("crazyeights.Round")
+@Label("Round")
+@Description("Dealing, playing or resetting a round")
+@Category("Crazy Eights")
+@Enabled(false)
+@StackTrace(false)
+public class RoundEvent extends Event {
+    @Label("Phase")
+    @Description("One of deal, play or reset")
+    String phase;
+
+    @Label("Players")
+    int players;
+
+    @Label("Turns")
+    @Description("The number of turns played so far in the round")
+    int turns;
+
+    @Label("Draw Pile Size")
+    int drawPileSize;
+}
@@ -0,0 +1,306 @@
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A SimulationCoordinator spreads a large simulation of all-bot games of
+ * Crazy Eights over several SimulationWorker processes on the same machine.
+ * The games are numbered and split into ranges, which are handed to workers
+ * one at a time over their standard input and output. The summaries sent
+ * back are merged into one.
+ *
+ * A game's outcome depends only on the master seed and its number, so the
+ * merged summary is the same however the ranges are spread. If a worker
+ * dies, or takes longer than the range timeout to answer, it is killed,
+ * the range it was playing is handed out again and a new worker is started
+ * in its place, up to a limit on restarts.
+ */
+public class SimulationCoordinator {
+    /**
+     * The number of turns after which a game is stopped by default.
+     */
+    public static final int DEFAULT_MAX_TURNS = 1000;
+
+    /**
+     * The time a worker is given to answer for a range by default, in
+     * milliseconds.
+     */
+    public static final long DEFAULT_RANGE_TIMEOUT = 60000;
+
+    /**
+     * The number of worker processes kept running.
+     */
+    private int workers;
+
+    /**
+     * The number of seats at each table.
+     */
+    private int seats;
+
+    /**
+     * The number of turns after which a game is stopped without a winner.
+     */
+    private int maxTurns;
+
+    /**
+     * The rules every game is played by.
+     */
+    private CrazyEightsRules rules;
+
+    /**
+     * The number of times a dead worker may be replaced during one run.
+     */
+    private int maxRestarts;
+
+    /**
+     * The time a worker is given to answer for a range, in milliseconds.
+     */
+    private long rangeTimeout;
+
+    /**
+     * Kills workers which take too long to answer, during a run.
+     */
+    private ScheduledExecutorService watchdog;
+
+    /**
+     * The number of workers which have died during the current run.
+     */
+    private int deaths;
+
+    /**
+     * Constructs a SimulationCoordinator.
+     *
+     * @param workers       the number of worker processes to run at once
+     * @param seats         the number of seats at each table, from 2 to 7
+     * @param maxTurns      the number of turns after which a game is stopped
+     * @param rules         the rules every game is played by
+     */
+    public SimulationCoordinator(int workers, int seats, int maxTurns, CrazyEightsRules rules) {
+        this(workers, seats, maxTurns, rules, DEFAULT_RANGE_TIMEOUT);
+    }
+
+    /**
+     * Constructs a SimulationCoordinator which gives up on a worker that
+     * takes longer than the given time to answer for a range.
+     *
+     * @param workers       the number of worker processes to run at once
+     * @param seats         the number of seats at each table, from 2 to 7
+     * @param maxTurns      the number of turns after which a game is stopped
+     * @param rules         the rules every game is played by
+     * @param rangeTimeout  the time a worker is given to answer for a range,
+     *                      in milliseconds
+     */
+    public SimulationCoordinator(int workers, int seats, int maxTurns, CrazyEightsRules rules, long rangeTimeout) {
+        if (rangeTimeout < 1) {
+            throw new IllegalArgumentException("Range timeout must be positive: " + rangeTimeout);
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        }
+        if (seats < 2 || seats > 7) {
+            throw new IllegalArgumentException("A table seats 2 to 7 players: " + seats);
+        }
+        this.workers = workers;
+        this.seats = seats;
+        this.maxTurns = maxTurns;
+        this.rules = rules;
+        this.maxRestarts = workers;
+        this.rangeTimeout = rangeTimeout;
+    }
+
+    /**
+     * Runs a simulation from the command line and prints its summary. The
+     * arguments are the number of workers, the number of games, the master
+     * seed, the number of seats, and optionally the draw limit and the names
+     * of rule variants.
+     *
+     * @param args      the simulation's settings
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 4) {
+            System.out.println("Usage: java SimulationCoordinator workers games seed seats [drawLimit [variant...]]");
+            return;
+        }
+        Set<CrazyEightsRules.Variant> variants = EnumSet.noneOf(CrazyEightsRules.Variant.class);
+        for (int i = 5; i < args.length; i++) {
+            variants.add(CrazyEightsRules.Variant.valueOf(args[i]));
+        }
+        int drawLimit = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        SimulationCoordinator coordinator = new SimulationCoordinator(Integer.parseInt(args[0]),
+                Integer.parseInt(args[3]), DEFAULT_MAX_TURNS, new CrazyEightsRules(variants, drawLimit));
+        long start = System.nanoTime();
+        SimulationSummary summary = coordinator.run(Long.parseLong(args[2]), Long.parseLong(args[1]), 1000);
+        System.out.println(summary);
+        System.out.printf("Finished in %d ms with %d worker restarts%n",
+                (System.nanoTime() - start) / 1000000, coordinator.deaths);
+    }
+
+    /**
+     * Plays the given number of games across the workers.
+     *
+     * @param masterSeed    the seed from which every game's seed is mixed
+     * @param games         the number of games, numbered from 0
+     * @param rangeSize     the number of games handed to a worker at once
+     * @return              the summary of every game
+     * @throws InterruptedException if interrupted while waiting for workers
+     * @throws IllegalStateException if workers keep dying and some games
+     *                      could not be played
+     */
+    public SimulationSummary run(long masterSeed, long games, int rangeSize) throws InterruptedException {
+        if (rangeSize < 1) {
+            throw new IllegalArgumentException("Range size must be positive: " + rangeSize);
+        }
+        int ranges = Math.toIntExact((games + rangeSize - 1) / rangeSize);
+        BlockingDeque<Integer> queue = new LinkedBlockingDeque<>();
+        for (int i = 0; i < ranges; i++) {
+            queue.add(i);
+        }
+        SimulationSummary total = new SimulationSummary(seats, maxTurns);
+        BitSet done = new BitSet(ranges);
+        deaths = 0;
+
+        watchdog = Executors.newSingleThreadScheduledExecutor();
+        List<Thread> threads = new ArrayList<>();
+        try {
+            for (int w = 0; w < workers; w++) {
+                Thread thread = new Thread(() -> serve(masterSeed, games, rangeSize, queue, total, done, ranges));
+                thread.start();
+                threads.add(thread);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } finally {
+            watchdog.shutdownNow();
+        }
+        synchronized (total) {
+            if (done.cardinality() < ranges) {
+                throw new IllegalStateException((ranges - done.cardinality()) + " of " + ranges
+                        + " ranges were not played after " + deaths + " worker deaths");
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Keeps one worker process busy until every range is done, replacing
+     * the process whenever it dies, hangs or sends back anything but the
+     * summary of the range it was given, whose range is then handed out
+     * again. Runs on its own thread.
+     *
+     * @param masterSeed    the seed from which every game's seed is mixed
+     * @param games         the number of games
+     * @param rangeSize     the number of games in each range
+     * @param queue         the ranges waiting to be played
+     * @param total         the summary every finished range is merged into
+     * @param done          the ranges merged so far, guarded by total
+     * @param ranges        the number of ranges
+     */
+    private void serve(long masterSeed, long games, int rangeSize, BlockingDeque<Integer> queue,
+            SimulationSummary total, BitSet done, int ranges) {
+        Process process = null;
+        try {
+            while (true) {
+                synchronized (total) {
+                    if (done.cardinality() == ranges) {
+                        return;
+                    }
+                }
+                Integer range = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (range == null) {
+                    continue;
+                }
+                try {
+                    if (process == null) {
+                        process = launch(masterSeed);
+                    }
+                    SimulationSummary summary = play(process, range, games, rangeSize);
+                    synchronized (total) {
+                        if (!done.get(range)) {
+                            done.set(range);
+                            total.merge(summary);
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    queue.addFirst(range);
+                    if (process != null) {
+                        process.destroyForcibly();
+                        process = null;
+                    }
+                    synchronized (this) {
+                        if (++deaths > maxRestarts) {
+                            return;
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (process != null) {
+                try {
+                    process.getOutputStream().close();
+                } catch (IOException e) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the given range to the given worker and waits for its summary.
+     * A worker which has not answered within the range timeout is killed,
+     * which ends the wait.
+     *
+     * @param process       the worker process
+     * @param range         the number of the range
+     * @param games         the number of games in the simulation
+     * @param rangeSize     the number of games in each range
+     * @return              the summary of the range
+     * @throws IOException if the worker dies, hangs, answers out of turn or
+     *                  sends back anything but a summary of this simulation
+     */
+    private SimulationSummary play(Process process, int range, long games, int rangeSize) throws IOException {
+        DataOutputStream out = new DataOutputStream(process.getOutputStream());
+        long first = (long) range * rangeSize;
+        out.writeInt(range);
+        out.writeLong(first);
+        out.writeInt((int) Math.min(rangeSize, games - first));
+        out.flush();
+        ScheduledFuture<?> kill = watchdog.schedule(process::destroyForcibly, rangeTimeout, TimeUnit.MILLISECONDS);
+        try {
+            DataInputStream in = new DataInputStream(process.getInputStream());
+            if (in.readInt() != range) {
+                throw new IOException("Worker answered for the wrong range");
+            }
+            return SimulationSummary.readFrom(in, seats, maxTurns);
+        } finally {
+            kill.cancel(false);
+        }
+    }
+
+    /**
+     * Starts a worker process running on the same Java installation and
+     * class path as this one.
+     *
+     * @param masterSeed    the seed from which every game's seed is mixed
+     * @return              the running worker
+     * @throws IOException if the process cannot be started
+     */
+    private Process launch(long masterSeed) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("SimulationWorker");
+        command.add(String.valueOf(seats));
+        command.add(String.valueOf(maxTurns));
+        command.add(String.valueOf(masterSeed));
+        command.add(String.valueOf(rules.getDrawLimit()));
+        for (CrazyEightsRules.Variant variant : rules.getVariants()) {
+            command.add(variant.name());
+        }
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+}
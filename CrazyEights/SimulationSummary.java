@@ -0,0 +1,306 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * A SimulationSummary totals the results of many all-bot games of Crazy
+ * Eights: how often each seat won, the points each seat scored and how many
+ * turns the games lasted. Summaries of separate batches of games merge into
+ * the summary of all of them, in any order, and travel between processes in
+ * a few hundred bytes.
+ */
+public class SimulationSummary {
+    /**
+     * The number of seats at each table.
+     */
+    private int seats;
+
+    /**
+     * The number of games played.
+     */
+    private long games;
+
+    /**
+     * The number of games stopped at the turn limit without a winner.
+     */
+    private long unfinished;
+
+    /**
+     * The number of games won from each seat.
+     */
+    private long[] wins;
+
+    /**
+     * The total points scored from each seat.
+     */
+    private long[] scores;
+
+    /**
+     * The number of games won after each number of turns, up to the turn
+     * limit, followed by one more entry counting every game stopped at the
+     * turn limit without a winner.
+     */
+    private long[] turnCounts;
+
+    /**
+     * Constructs an empty SimulationSummary.
+     *
+     * @param seats         the number of seats at each table
+     * @param maxTurns      the number of turns after which a game is stopped
+     */
+    public SimulationSummary(int seats, int maxTurns) {
+        this.seats = seats;
+        this.wins = new long[seats];
+        this.scores = new long[seats];
+        this.turnCounts = new long[maxTurns + 2];
+    }
+
+    /**
+     * Records a game which the given seat won.
+     *
+     * @param winner        the seat of the winner
+     * @param points        the points the winner scored
+     * @param turns         the number of turns the game lasted
+     */
+    public void addWin(int winner, int points, int turns) {
+        games++;
+        wins[winner]++;
+        scores[winner] += points;
+        turnCounts[turns]++;
+    }
+
+    /**
+     * Records a game stopped at the turn limit without a winner.
+     */
+    public void addUnfinished() {
+        games++;
+        unfinished++;
+        turnCounts[turnCounts.length - 1]++;
+    }
+
+    /**
+     * Adds the given summary's games to this one's.
+     *
+     * @param other     a summary of games at tables of the same size, with
+     *                  the same turn limit
+     */
+    public void merge(SimulationSummary other) {
+        if (other.seats != seats || other.turnCounts.length != turnCounts.length) {
+            throw new IllegalArgumentException("Summaries of different simulations cannot be merged");
+        }
+        games += other.games;
+        unfinished += other.unfinished;
+        for (int i = 0; i < seats; i++) {
+            wins[i] += other.wins[i];
+            scores[i] += other.scores[i];
+        }
+        for (int i = 0; i < turnCounts.length; i++) {
+            turnCounts[i] += other.turnCounts[i];
+        }
+    }
+
+    /**
+     * Writes this summary to the given stream, listing only the turn counts
+     * which some game lasted.
+     *
+     * @param out       the stream to be written to
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(seats);
+        out.writeInt(turnCounts.length - 2);
+        out.writeLong(games);
+        out.writeLong(unfinished);
+        for (int i = 0; i < seats; i++) {
+            out.writeLong(wins[i]);
+            out.writeLong(scores[i]);
+        }
+        int used = 0;
+        for (long count : turnCounts) {
+            if (count != 0) {
+                used++;
+            }
+        }
+        out.writeInt(used);
+        for (int i = 0; i < turnCounts.length; i++) {
+            if (turnCounts[i] != 0) {
+                out.writeInt(i);
+                out.writeLong(turnCounts[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a summary written by writeTo.
+     *
+     * @param in        the stream to be read from
+     * @return          the summary read
+     * @throws IOException if the stream cannot be read, ends early or does
+     *                  not hold a summary
+     */
+    public static SimulationSummary readFrom(DataInput in) throws IOException {
+        int seats = in.readByte();
+        int maxTurns = in.readInt();
+        if (seats < 2 || seats > 7) {
+            throw new IOException("Not a summary: a table seats 2 to 7 players, not " + seats);
+        }
+        if (maxTurns < 1 || maxTurns > Integer.MAX_VALUE - 2) {
+            throw new IOException("Not a summary: bad turn limit " + maxTurns);
+        }
+        return readCounts(in, new SimulationSummary(seats, maxTurns));
+    }
+
+    /**
+     * Reads a summary written by writeTo which must be of games at tables of
+     * the given size with the given turn limit, so that it can be merged
+     * into a summary of the same simulation.
+     *
+     * @param in        the stream to be read from
+     * @param seats     the number of seats at each table
+     * @param maxTurns  the number of turns after which a game is stopped
+     * @return          the summary read
+     * @throws IOException if the stream cannot be read, ends early or does
+     *                  not hold a summary of such games
+     */
+    public static SimulationSummary readFrom(DataInput in, int seats, int maxTurns) throws IOException {
+        int readSeats = in.readByte();
+        int readTurns = in.readInt();
+        if (readSeats != seats || readTurns != maxTurns) {
+            throw new IOException("Expected a summary of " + seats + " seats and " + maxTurns
+                    + " turns, not " + readSeats + " seats and " + readTurns + " turns");
+        }
+        return readCounts(in, new SimulationSummary(seats, maxTurns));
+    }
+
+    /**
+     * Reads the counts following the header written by writeTo into the
+     * given empty summary, checking that each is in range.
+     *
+     * @param in        the stream to be read from
+     * @param summary   an empty summary of the size given in the header
+     * @return          the summary
+     * @throws IOException if the stream cannot be read, ends early or holds
+     *                  a count out of range
+     */
+    private static SimulationSummary readCounts(DataInput in, SimulationSummary summary) throws IOException {
+        summary.games = readCount(in);
+        summary.unfinished = readCount(in);
+        for (int i = 0; i < summary.seats; i++) {
+            summary.wins[i] = readCount(in);
+            summary.scores[i] = readCount(in);
+        }
+        int used = in.readInt();
+        if (used < 0 || used > summary.turnCounts.length) {
+            throw new IOException("Not a summary: " + used + " turn counts");
+        }
+        for (; used > 0; used--) {
+            int turns = in.readInt();
+            if (turns < 0 || turns >= summary.turnCounts.length) {
+                throw new IOException("Not a summary: turn count for " + turns + " turns");
+            }
+            summary.turnCounts[turns] = readCount(in);
+        }
+        return summary;
+    }
+
+    /**
+     * Reads one count, which may not be negative.
+     *
+     * @param in        the stream to be read from
+     * @return          the count
+     * @throws IOException if the stream cannot be read or the count is negative
+     */
+    private static long readCount(DataInput in) throws IOException {
+        long count = in.readLong();
+        if (count < 0) {
+            throw new IOException("Not a summary: negative count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Reports the number of games played.
+     *
+     * @return      the number of games
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Reports the number of games stopped at the turn limit.
+     *
+     * @return      the number of games without a winner
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * Reports the number of games won from the given seat.
+     *
+     * @param seat      the seat, counting from 0 for the dealer
+     * @return          the number of wins
+     */
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+
+    /**
+     * Reports the total points scored from the given seat.
+     *
+     * @param seat      the seat, counting from 0 for the dealer
+     * @return          the sum of the seat's scores
+     */
+    public long getScore(int seat) {
+        return scores[seat];
+    }
+
+    /**
+     * Reports the number of games won after the given number of turns.
+     * Games stopped at the turn limit are not counted.
+     *
+     * @param turns     the number of turns
+     * @return          the number of games
+     */
+    public long getTurnCount(int turns) {
+        return turns < turnCounts.length - 1 ? turnCounts[turns] : 0;
+    }
+
+    /**
+     * Computes the mean number of turns of the games with a winner.
+     *
+     * @return      the mean game length, or 0 if no game has finished
+     */
+    public double getMeanTurns() {
+        long total = 0;
+        for (int i = 0; i < turnCounts.length - 1; i++) {
+            total += i * turnCounts[i];
+        }
+        return games == unfinished ? 0 : (double) total / (games - unfinished);
+    }
+
+    public boolean equals(Object o) {
+        if (!(o instanceof SimulationSummary)) {
+            return false;
+        }
+        SimulationSummary other = (SimulationSummary) o;
+        return seats == other.seats && games == other.games && unfinished == other.unfinished
+                && Arrays.equals(wins, other.wins) && Arrays.equals(scores, other.scores)
+                && Arrays.equals(turnCounts, other.turnCounts);
+    }
+
+    public int hashCode() {
+        return Objects.hash(games, unfinished, Arrays.hashCode(wins), Arrays.hashCode(scores),
+                Arrays.hashCode(turnCounts));
+    }
+
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(games).append(" games, ").append(unfinished).append(" stopped at the turn limit, ")
+                .append(String.format("%.1f", getMeanTurns())).append(" turns on average");
+        for (int i = 0; i < seats; i++) {
+            text.append(String.format("%nSeat %d: %d wins, %d points", i, wins[i], scores[i]));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,153 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * A SimulationWorker plays all-bot games of Crazy Eights for a
+ * SimulationCoordinator. Game number g of a simulation is played from a
+ * seed mixed from the master seed and g, so the same game comes out the
+ * same on any worker, and any range of games has a single summary.
+ *
+ * Run as a program, a SimulationWorker reads ranges from standard input
+ * and answers each with its summary on standard output, until its input
+ * is closed. Its arguments are the number of seats, the turn limit, the
+ * master seed, the draw limit and the names of any rule variants.
+ */
+public class SimulationWorker {
+    /**
+     * The number of seats at each table.
+     */
+    private int seats;
+
+    /**
+     * The number of turns after which a game is stopped without a winner.
+     */
+    private int maxTurns;
+
+    /**
+     * The seed from which every game's seed is mixed.
+     */
+    private long masterSeed;
+
+    /**
+     * The rules every game is played by.
+     */
+    private CrazyEightsRules rules;
+
+    /**
+     * Constructs a SimulationWorker.
+     *
+     * @param seats         the number of seats at each table, from 2 to 7
+     * @param maxTurns      the number of turns after which a game is stopped
+     * @param masterSeed    the seed from which every game's seed is mixed
+     * @param rules         the rules every game is played by
+     */
+    public SimulationWorker(int seats, int maxTurns, long masterSeed, CrazyEightsRules rules) {
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("Turn limit must be positive: " + maxTurns);
+        }
+        this.seats = seats;
+        this.maxTurns = maxTurns;
+        this.masterSeed = masterSeed;
+        this.rules = rules;
+    }
+
+    /**
+     * Serves ranges of games over standard input and output. Each range is
+     * an int id, a long first game number and an int number of games; each
+     * answer is the range's id followed by its summary.
+     *
+     * @param args      the seats, turn limit, master seed, draw limit and
+     *                  rule variants
+     * @throws IOException if standard input or output fails
+     */
+    public static void main(String[] args) throws IOException {
+        Set<CrazyEightsRules.Variant> variants = EnumSet.noneOf(CrazyEightsRules.Variant.class);
+        for (int i = 4; i < args.length; i++) {
+            variants.add(CrazyEightsRules.Variant.valueOf(args[i]));
+        }
+        SimulationWorker worker = new SimulationWorker(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+                Long.parseLong(args[2]), new CrazyEightsRules(variants, Integer.parseInt(args[3])));
+
+        //The admin narrates every move to System.out, which here carries results
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        while (true) {
+            int id;
+            try {
+                id = in.readInt();
+            } catch (EOFException e) {
+                break;
+            }
+            long first = in.readLong();
+            int count = in.readInt();
+            SimulationSummary summary = worker.run(first, count);
+            out.writeInt(id);
+            summary.writeTo(out);
+            out.flush();
+        }
+    }
+
+    /**
+     * Plays the given range of games.
+     *
+     * @param first     the number of the first game
+     * @param count     the number of games
+     * @return          the summary of the games
+     */
+    public SimulationSummary run(long first, int count) {
+        SimulationSummary summary = new SimulationSummary(seats, maxTurns);
+        for (long game = first; game < first + count; game++) {
+            play(game, summary);
+        }
+        return summary;
+    }
+
+    /**
+     * Plays the given game and adds it to the given summary. The bots and
+     * the deck each get a Random seeded from the game's seed.
+     *
+     * @param game      the number of the game
+     * @param summary   the summary to record the result in
+     */
+    private void play(long game, SimulationSummary summary) {
+        Random seeds = new Random(gameSeed(masterSeed, game));
+        List<CrazyBot> bots = new ArrayList<>();
+        for (int i = 0; i < seats; i++) {
+            bots.add(new CrazyBot(i, new Random(seeds.nextLong())));
+        }
+        CrazyEightsAdmin admin = new CrazyEightsAdmin(bots, rules, new Random(seeds.nextLong()));
+        admin.deal();
+        admin.start();
+        int turns = 0;
+        while (!admin.isGameOver() && turns < maxTurns) {
+            admin.playTurn();
+            turns++;
+        }
+        if (!admin.isGameOver()) {
+            summary.addUnfinished();
+            return;
+        }
+        int winner = 0;
+        while (!bots.get(winner).isOut()) {
+            winner++;
+        }
+        admin.reset();
+        summary.addWin(winner, bots.get(winner).getScore(), turns);
+    }
+
+    /**
+     * Mixes the seed of the given game from the master seed, so that
+     * neighbouring games get unrelated seeds.
+     *
+     * @param masterSeed    the seed of the simulation
+     * @param game          the number of the game
+     * @return              the game's seed
+     */
+    public static long gameSeed(long masterSeed, long game) {
+        long z = masterSeed + (game + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
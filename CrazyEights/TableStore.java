@@ -0,0 +1,280 @@
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A TableStore holds tables of Crazy Eights which are waiting for a move,
+ * each packed into a 64-byte record outside the Java heap. A parked table
+ * costs no heap and is never traced by the garbage collector; it is
+ * rebuilt into a CrazyEightsAdmin when a move arrives and parked again
+ * afterwards. The record holds every card, the turn order and the scores,
+ * so players are rebuilt or reused when unparking rather than kept per table.
+ * Only tables which have spectators keep their GameEventPublisher on the heap
+ * while parked, so that their feeds carry on across parking.
+ *
+ * The record does not hold the state of any Random. An unparked table
+ * shuffles, and its rebuilt bots choose, with randomness drawn from the
+ * Random given to unpark, so a seeded game carries on the same way each time
+ * it is unparked with the same seed, but not the way it would have gone had
+ * it never been parked.
+ *
+ * Records are kept in direct buffers of 2^20 records (64 MiB) each, allocated
+ * as the store fills, so 10 million tables take about 640 MiB of direct memory
+ * (see -XX:MaxDirectMemorySize). The ids of removed tables are reused.
+ *
+ * Allocating and removing ids is thread-safe. Parking and unparking a given
+ * table must not happen on two threads at once.
+ */
+public class TableStore {
+    /**
+     * The size of a parked table in bytes.
+     */
+    public static final int RECORD_SIZE = 64;
+
+    /**
+     * The number of bits in the number of records per buffer.
+     */
+    private static final int CHUNK_BITS = 20;
+
+    /**
+     * The buffers holding the records, allocated as they are needed.
+     */
+    private ByteBuffer[] chunks;
+
+    /**
+     * The most tables the store can hold.
+     */
+    private int capacity;
+
+    /**
+     * The number of ids ever handed out; every id below this is in use or free.
+     */
+    private int highWater;
+
+    /**
+     * The most recently removed id, or -1 if none are free. Each free record
+     * holds the next free id in its first four bytes.
+     */
+    private int freeHead;
+
+    /**
+     * The ids in use, one bit per id.
+     */
+    private long[] inUse;
+
+    /**
+     * The number of tables in the store.
+     */
+    private int size;
+
+    /**
+     * The publishers of parked tables which had spectators when parked, by id.
+     */
+    private Map<Integer, GameEventPublisher> watched;
+
+    /**
+     * Constructs an empty TableStore.
+     *
+     * @param capacity      the most tables the store can hold
+     */
+    public TableStore(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.chunks = new ByteBuffer[(int) (((long) capacity + (1 << CHUNK_BITS) - 1) >> CHUNK_BITS)];
+        this.inUse = new long[(capacity + 63) >>> 6];
+        this.freeHead = -1;
+        this.watched = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Parks the given table under a new id.
+     *
+     * @param admin     the table to be parked, between turns
+     * @return          the id under which the table was parked
+     * @throws IllegalStateException if the store is full
+     */
+    public int park(CrazyEightsAdmin admin) {
+        int id = allocate();
+        try {
+            admin.writeTo(chunk(id), offset(id));
+        } catch (RuntimeException e) {
+            remove(id);
+            throw e;
+        }
+        watch(id, admin.getEvents());
+        return id;
+    }
+
+    /**
+     * Parks the given table under an id it was unparked from, replacing the
+     * table stored there.
+     *
+     * @param id        the id of the table
+     * @param admin     the table to be parked, between turns
+     */
+    public void park(int id, CrazyEightsAdmin admin) {
+        check(id);
+        admin.writeTo(chunk(id), offset(id));
+        watch(id, admin.getEvents());
+    }
+
+    /**
+     * Rebuilds the table parked under the given id, seating the sentient
+     * player and fresh bots seeded from the given Random. The table stays in
+     * the store and should be parked again under the same id once it has moved.
+     *
+     * @param id        the id of the table
+     * @param name      the name of the table's sentient player
+     * @param console   a Scanner which takes the sentient player's input
+     * @param rules     the rules the table is playing by
+     * @param rand      the source of randomness for the bots and shuffles
+     * @return          a CrazyEightsAdmin in the state the table was parked in
+     */
+    public CrazyEightsAdmin unpark(int id, String name, Scanner console, CrazyEightsRules rules, Random rand) {
+        check(id);
+        return new CrazyEightsAdmin(chunk(id), offset(id), name, console, rules, rand, publisher(id));
+    }
+
+    /**
+     * Rebuilds the table parked under the given id with the given players,
+     * whose hands and scores are replaced by the ones in the record. The same
+     * players may be used to unpark one table after another. The table stays
+     * in the store and should be parked again under the same id once it has
+     * moved.
+     *
+     * @param id        the id of the table
+     * @param seated    the players to be seated, from seat 0 up
+     * @param rules     the rules the table is playing by
+     * @param rand      the source of randomness for shuffles
+     * @return          a CrazyEightsAdmin in the state the table was parked in
+     */
+    public CrazyEightsAdmin unpark(int id, List<? extends AbstractCrazyEightsPlayer> seated, CrazyEightsRules rules,
+            Random rand) {
+        check(id);
+        return new CrazyEightsAdmin(chunk(id), offset(id), seated, rules, rand, publisher(id));
+    }
+
+    /**
+     * Removes the table parked under the given id, freeing the id for reuse.
+     * Any spectators of the table have their feeds completed.
+     *
+     * @param id        the id of the table
+     */
+    public synchronized void remove(int id) {
+        check(id);
+        GameEventPublisher events = watched.remove(id);
+        if (events != null) {
+            events.close();
+        }
+        inUse[id >>> 6] &= ~(1L << id);
+        chunk(id).putInt(offset(id), freeHead);
+        freeHead = id;
+        size--;
+    }
+
+    /**
+     * Checks if a table is parked under the given id.
+     *
+     * @param id        the id to be checked
+     * @return          true if the id is in use; false otherwise
+     */
+    public synchronized boolean contains(int id) {
+        return id >= 0 && id < highWater && (inUse[id >>> 6] & 1L << id) != 0;
+    }
+
+    /**
+     * Reports the number of tables in the store.
+     *
+     * @return      the number of parked tables
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Reports the most tables the store can hold.
+     *
+     * @return      the capacity of the store
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Keeps the given publisher of the table parked under the given id if
+     * it has spectators, and forgets it otherwise.
+     *
+     * @param id        the id of the table
+     * @param events    the table's publisher
+     */
+    private void watch(int id, GameEventPublisher events) {
+        if (events.hasSubscribers()) {
+            watched.put(id, events);
+        } else {
+            watched.remove(id);
+        }
+    }
+
+    /**
+     * Gives the publisher of the table parked under the given id: the one it
+     * was parked with if it had spectators, or a new one otherwise.
+     *
+     * @param id        the id of the table
+     * @return          the publisher to stream the unparked table
+     */
+    private GameEventPublisher publisher(int id) {
+        GameEventPublisher events = watched.get(id);
+        return events != null ? events : new GameEventPublisher();
+    }
+
+    /**
+     * Hands out a free id, reusing removed ids first.
+     *
+     * @return      an id not in use
+     */
+    private synchronized int allocate() {
+        int id;
+        if (freeHead != -1) {
+            id = freeHead;
+            freeHead = chunk(id).getInt(offset(id));
+        } else if (highWater < capacity) {
+            id = highWater++;
+            if (chunks[id >>> CHUNK_BITS] == null) {
+                long records = Math.min(1 << CHUNK_BITS, capacity - ((long) id >>> CHUNK_BITS << CHUNK_BITS));
+                chunks[id >>> CHUNK_BITS] = ByteBuffer.allocateDirect((int) records * RECORD_SIZE);
+            }
+        } else {
+            throw new IllegalStateException("Table store is full: " + capacity + " tables");
+        }
+        inUse[id >>> 6] |= 1L << id;
+        size++;
+        return id;
+    }
+
+    /**
+     * Throws an exception if no table is parked under the given id.
+     *
+     * @param id        the id to be checked
+     */
+    private void check(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("No table parked under id " + id);
+        }
+    }
+
+    /**
+     * Gives the buffer holding the record with the given id.
+     */
+    private ByteBuffer chunk(int id) {
+        return chunks[id >>> CHUNK_BITS];
+    }
+
+    /**
+     * Gives the position of the record with the given id in its buffer.
+     */
+    private static int offset(int id) {
+        return (id & ((1 << CHUNK_BITS) - 1)) * RECORD_SIZE;
+    }
+}
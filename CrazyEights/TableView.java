@@ -0,0 +1,64 @@
+/**
+ * A TableView describes what every player at a table of Crazy Eights can
+ * see: which cards have not yet been shown, how many cards are left of each
+ * suit and rank, and how many cards each seat holds. Sets of cards are
+ * 52-bit masks in which each Card occupies the bit given by {@link Card#index()}.
+ */
+public interface TableView {
+    /**
+     * Gives the cards which have not been shown face up since the deck was
+     * last reset. These are in the draw pile or in a player's hand.
+     */
+    public long getUnseen();
+
+    /**
+     * Gives the number of unseen cards.
+     */
+    public int getUnseenCount();
+
+    /**
+     * Gives the number of unseen cards of the given suit.
+     */
+    public int getUnseenCount(Card.Suit suit);
+
+    /**
+     * Gives the number of unseen cards of the given rank.
+     */
+    public int getUnseenCount(Card.Rank rank);
+
+    /**
+     * Gives the cards currently in the discard pile.
+     */
+    public long getDiscards();
+
+    /**
+     * Gives the card on top of the discard pile, or 0 if the pile is empty.
+     */
+    public long getTopDiscard();
+
+    /**
+     * Gives the number of cards left in the draw pile.
+     */
+    public int getDrawPileSize();
+
+    /**
+     * Gives the number of seats at the table.
+     */
+    public int getSeatCount();
+
+    /**
+     * Reports whether play passes to lower seat numbers rather than higher.
+     */
+    public boolean isReversed();
+
+    /**
+     * Gives the number of cards held by the player in the given seat.
+     */
+    public int getHandSize(int seat);
+
+    /**
+     * Gives the cards known by everyone to be in the hand of the player in
+     * the given seat.
+     */
+    public long getKnown(int seat);
+}
@@ -0,0 +1,564 @@
+import java.util.*;
+
+/**
+ * A TournamentScheduler forms tables of Crazy Eights from a large pool of
+ * entrants, numbered from 0, and rates the entrants as results come in.
+ * Table workers ask for a table with nextTable, play it with whatever
+ * players the entrants stand for, and hand the result to report.
+ *
+ * Ratings are Elo ratings extended to tables of more than two: each game is
+ * scored as a match between every two players at the table, with the player
+ * left holding fewer points winning. The pairwise changes are scaled down
+ * by the number of opponents so one game moves a rating about as far as one
+ * head-to-head game would.
+ *
+ * In a Swiss tournament each entrant earns one point per opponent beaten at
+ * their table (half a point for a tie), and each round seats entrants with
+ * the most points together, avoiding anyone they have met before where
+ * possible. A round is not seated until every table of the previous round
+ * has reported. In a round robin tournament the tables of every round are
+ * fixed in advance, and tables are handed out without waiting for results.
+ *
+ * Every operation but getStandings takes time independent of the number of
+ * entrants, so that the scheduler keeps up with any number of workers.
+ */
+public class TournamentScheduler {
+    /**
+     * The set of ways to form tables.
+     */
+    public enum Format {
+        /**
+         * Seat entrants with similar numbers of points together each round.
+         */
+        SWISS,
+        /**
+         * Rotate entrants through a fixed schedule in which each two share
+         * a table at least once in a cycle of rounds. Tables seat an even
+         * number of places, some of which may be byes.
+         */
+        ROUND_ROBIN;
+    }
+
+    /**
+     * The rating of an entrant who has not yet played.
+     */
+    public static final double INITIAL_RATING = 1500;
+
+    /**
+     * The most a rating can move in one head-to-head game.
+     */
+    public static final double K_FACTOR = 32;
+
+    /**
+     * The number of candidates looked at when trying to avoid a repeat
+     * meeting at a Swiss table.
+     */
+    private static final int SEARCH_LIMIT = 32;
+
+    /**
+     * The number of entrants.
+     */
+    private int entrants;
+
+    /**
+     * The way tables are formed.
+     */
+    private Format format;
+
+    /**
+     * The number of rounds to be played.
+     */
+    private int rounds;
+
+    /**
+     * The number of tables in each round.
+     */
+    private int tablesPerRound;
+
+    /**
+     * The number of seats at the smaller tables of each round; the first
+     * largerTables tables of each round seat one more.
+     */
+    private int baseSize;
+
+    /**
+     * The number of tables in each round seating baseSize + 1.
+     */
+    private int largerTables;
+
+    /**
+     * The number of places in a round robin rotation: the number of entrants
+     * rounded up to a whole number of tables. Entrant numbers from entrants
+     * up to this are byes.
+     */
+    private int circleSize;
+
+    /**
+     * Each entrant's rating.
+     */
+    private double[] ratings;
+
+    /**
+     * Each entrant's points, doubled so that ties count whole.
+     */
+    private int[] doublePoints;
+
+    /**
+     * The number of games each entrant has finished.
+     */
+    private int[] gamesPlayed;
+
+    /**
+     * The round being seated, counting from 0.
+     */
+    private int round;
+
+    /**
+     * The number of tables of the current round handed out so far.
+     */
+    private int tablesSeated;
+
+    /**
+     * The number of tables handed out whose results have not been reported.
+     */
+    private int tablesPending;
+
+    /**
+     * For Swiss tournaments, the entrants waiting to be seated this round,
+     * grouped by doubled points.
+     */
+    private Buckets waiting;
+
+    /**
+     * For Swiss tournaments, the entrants who have finished their game this
+     * round, grouped by their new doubled points.
+     */
+    private Buckets finished;
+
+    /**
+     * For Swiss tournaments, everyone each entrant has shared a table with,
+     * in rows of historyWidth.
+     */
+    private int[] history;
+
+    /**
+     * The number of opponents each entrant can meet over the tournament.
+     */
+    private int historyWidth;
+
+    /**
+     * The number of opponents recorded in each entrant's row of history.
+     */
+    private int[] historySize;
+
+    /**
+     * Constructs a TournamentScheduler in which every entrant starts with the
+     * initial rating and no points.
+     *
+     * @param entrants      the number of entrants, at least 2
+     * @param tableSize     the most players seated at a table, from 2 to 7;
+     *                      in a Swiss tournament tables are as full as they
+     *                      can be while keeping everyone in every round,
+     *                      except that with a table size of 2 and an odd
+     *                      number of entrants one table seats 3; in a round
+     *                      robin an odd table size is rounded down to even,
+     *                      and tables short of entrants are filled with byes
+     * @param format        the way tables are formed
+     * @param rounds        the number of rounds to be played
+     */
+    public TournamentScheduler(int entrants, int tableSize, Format format, int rounds) {
+        if (entrants < 2) {
+            throw new IllegalArgumentException("A tournament needs at least 2 entrants: " + entrants);
+        }
+        if (tableSize < 2 || tableSize > 7) {
+            throw new IllegalArgumentException("A table seats 2 to 7 players: " + tableSize);
+        }
+        if (rounds < 1) {
+            throw new IllegalArgumentException("Rounds must be positive: " + rounds);
+        }
+        this.entrants = entrants;
+        this.format = format;
+        this.rounds = rounds;
+        this.ratings = new double[entrants];
+        Arrays.fill(ratings, INITIAL_RATING);
+        this.doublePoints = new int[entrants];
+        this.gamesPlayed = new int[entrants];
+
+        if (format == Format.ROUND_ROBIN) {
+            //Facing places must share a table, so every table takes an even
+            //number of places and the circle is padded with byes to fill them
+            baseSize = tableSize & ~1;
+            tablesPerRound = (entrants + baseSize - 1) / baseSize;
+            circleSize = tablesPerRound * baseSize;
+        } else {
+            tablesPerRound = (entrants + tableSize - 1) / tableSize;
+            if (entrants / tablesPerRound < 2) {
+                tablesPerRound = entrants / 2;
+            }
+            baseSize = entrants / tablesPerRound;
+            largerTables = entrants % tablesPerRound;
+        }
+
+        if (format == Format.SWISS) {
+            int maxSize = baseSize + (largerTables > 0 ? 1 : 0);
+            historyWidth = (int) Math.min((long) rounds * (maxSize - 1), entrants - 1);
+            history = new int[Math.multiplyExact(entrants, historyWidth)];
+            historySize = new int[entrants];
+            int maxPoints = (int) Math.min((long) rounds * 2 * (maxSize - 1), Integer.MAX_VALUE - 1);
+            waiting = new Buckets(entrants, maxPoints);
+            finished = new Buckets(entrants, maxPoints);
+            for (int i = 0; i < entrants; i++) {
+                waiting.add(i, 0);
+            }
+        }
+    }
+
+    /**
+     * Hands out the next table to be played. For a Swiss tournament, waits
+     * until the previous round has been reported if every table of the
+     * current round has been handed out.
+     *
+     * @return      the entrants to be seated, from seat 0 up, or null if every
+     *              table of the tournament has been handed out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized int[] nextTable() throws InterruptedException {
+        if (format == Format.ROUND_ROBIN) {
+            return nextRoundRobinTable();
+        }
+        while (round < rounds && tablesSeated == tablesPerRound) {
+            if (tablesPending == 0) {
+                Buckets empty = waiting;
+                waiting = finished;
+                finished = empty;
+                round++;
+                tablesSeated = 0;
+            } else {
+                wait();
+            }
+        }
+        if (round == rounds) {
+            return null;
+        }
+        int[] table = new int[tableSize(tablesSeated)];
+        for (int seat = 0; seat < table.length; seat++) {
+            table[seat] = pickSwissEntrant(table, seat);
+            waiting.remove(table[seat]);
+        }
+        for (int seat = 0; seat < table.length; seat++) {
+            for (int other = 0; other < table.length; other++) {
+                int player = table[seat];
+                if (other != seat && historySize[player] < historyWidth) {
+                    history[player * historyWidth + historySize[player]++] = table[other];
+                }
+            }
+        }
+        tablesSeated++;
+        tablesPending++;
+        return table;
+    }
+
+    /**
+     * Records the result of a table handed out by nextTable, updating the
+     * ratings and points of everyone at the table.
+     *
+     * @param table         the entrants seated, as returned by nextTable
+     * @param handValues    the points left in each seat's hand when the game
+     *                      ended, in the same order; lower is better
+     */
+    public synchronized void report(int[] table, int[] handValues) {
+        if (table.length != handValues.length) {
+            throw new IllegalArgumentException("Expected " + table.length + " hand values: " + handValues.length);
+        }
+        if (tablesPending == 0) {
+            throw new IllegalStateException("No tables are waiting for a result");
+        }
+        double scale = K_FACTOR / (table.length - 1);
+        double[] changes = new double[table.length];
+        int[] earned = new int[table.length];
+        for (int i = 0; i < table.length; i++) {
+            for (int j = i + 1; j < table.length; j++) {
+                int outcome = Integer.compare(handValues[j], handValues[i]) + 1;
+                double expected = 1 / (1 + Math.pow(10, (ratings[table[j]] - ratings[table[i]]) / 400));
+                double change = scale * (outcome / 2.0 - expected);
+                changes[i] += change;
+                changes[j] -= change;
+                earned[i] += outcome;
+                earned[j] += 2 - outcome;
+            }
+        }
+        for (int i = 0; i < table.length; i++) {
+            int player = table[i];
+            ratings[player] += changes[i];
+            doublePoints[player] += earned[i];
+            gamesPlayed[player]++;
+            if (format == Format.SWISS) {
+                finished.add(player, doublePoints[player]);
+            }
+        }
+        tablesPending--;
+        if (tablesPending == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Checks if every table of the tournament has been handed out and reported.
+     *
+     * @return      true if the tournament is over; false otherwise
+     */
+    public synchronized boolean isFinished() {
+        return tablesPending == 0 && (round == rounds || round == rounds - 1 && tablesSeated == tablesPerRound);
+    }
+
+    /**
+     * Reports the round being seated.
+     *
+     * @return      the round number, counting from 0
+     */
+    public synchronized int getRound() {
+        return round;
+    }
+
+    /**
+     * Reports the given entrant's rating.
+     *
+     * @param entrant   the number of the entrant
+     * @return          the entrant's current rating
+     */
+    public synchronized double getRating(int entrant) {
+        return ratings[entrant];
+    }
+
+    /**
+     * Reports the given entrant's points: one for each opponent beaten and
+     * a half for each tie.
+     *
+     * @param entrant   the number of the entrant
+     * @return          the entrant's points so far
+     */
+    public synchronized double getPoints(int entrant) {
+        return doublePoints[entrant] / 2.0;
+    }
+
+    /**
+     * Reports the number of games the given entrant has finished.
+     *
+     * @param entrant   the number of the entrant
+     * @return          the entrant's number of games
+     */
+    public synchronized int getGamesPlayed(int entrant) {
+        return gamesPlayed[entrant];
+    }
+
+    /**
+     * Ranks the entrants by rating, highest first. This sorts every entrant,
+     * so it is meant for leaderboards rather than for table workers.
+     *
+     * @param count     the number of entrants to be ranked
+     * @return          the numbers of the top entrants, best first
+     */
+    public synchronized int[] getStandings(int count) {
+        Integer[] order = new Integer[entrants];
+        for (int i = 0; i < entrants; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(ratings[b], ratings[a]));
+        int[] top = new int[Math.min(count, entrants)];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = order[i];
+        }
+        return top;
+    }
+
+    /**
+     * Gives the number of seats at the given table of a round.
+     */
+    private int tableSize(int table) {
+        return baseSize + (table < largerTables ? 1 : 0);
+    }
+
+    /**
+     * Hands out the next table of the round robin schedule. Entrants are
+     * placed around a circle with entrant 0 fixed and the rest turning one
+     * place each round; the circle is folded in half so that facing places
+     * sit next to each other, and tables of an even number of places are cut
+     * from it in order, so facing places always share a table. Every two
+     * entrants therefore meet at least once per cycle of circleSize - 1
+     * rounds, and exactly once with two places per table. Byes take no seat;
+     * an entrant left alone at a table sits the round out.
+     *
+     * @return      the entrants to be seated, or null if every table has been
+     *              handed out
+     */
+    private int[] nextRoundRobinTable() {
+        while (round < rounds) {
+            if (tablesSeated == tablesPerRound) {
+                round++;
+                tablesSeated = 0;
+                continue;
+            }
+            int start = tablesSeated * baseSize;
+            int[] seats = new int[baseSize];
+            int count = 0;
+            for (int i = 0; i < seats.length; i++) {
+                int position = start + i;
+                int place = position % 2 == 0 ? position / 2 : circleSize - 1 - position / 2;
+                int player = place == 0 ? 0 : 1 + (place - 1 + round) % (circleSize - 1);
+                if (player < entrants) {
+                    seats[count++] = player;
+                }
+            }
+            tablesSeated++;
+            if (count >= 2) {
+                tablesPending++;
+                return Arrays.copyOf(seats, count);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Picks the waiting entrant to take the given seat at a Swiss table: the
+     * first, from the most points down, who has not met anyone already
+     * seated, or simply the first if none of the next few qualify.
+     *
+     * @param table     the table being seated
+     * @param seat      the seat to be filled
+     * @return          the number of the entrant
+     */
+    private int pickSwissEntrant(int[] table, int seat) {
+        int first = waiting.first();
+        int candidate = first;
+        for (int tries = 0; tries < SEARCH_LIMIT && candidate != -1; tries++) {
+            if (!hasMet(candidate, table, seat)) {
+                return candidate;
+            }
+            candidate = waiting.next(candidate);
+        }
+        return first;
+    }
+
+    /**
+     * Checks if the given entrant has shared a table with any of the first
+     * seats of the given table.
+     */
+    private boolean hasMet(int player, int[] table, int seats) {
+        int row = player * historyWidth;
+        for (int i = 0; i < historySize[player]; i++) {
+            for (int seat = 0; seat < seats; seat++) {
+                if (history[row + i] == table[seat]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A Buckets groups entrants by doubled points in doubly linked lists,
+     * so that entrants can be added, removed and walked from the most points
+     * down without sorting.
+     */
+    private static class Buckets {
+        /**
+         * The first entrant with each number of doubled points, or -1.
+         */
+        private int[] heads;
+
+        /**
+         * The last entrant with each number of doubled points, or -1.
+         */
+        private int[] tails;
+
+        /**
+         * The entrant after each entrant in its list, or -1.
+         */
+        private int[] next;
+
+        /**
+         * The entrant before each entrant in its list, or -1.
+         */
+        private int[] previous;
+
+        /**
+         * The number of doubled points of each entrant in the lists.
+         */
+        private int[] bucket;
+
+        /**
+         * An upper bound on the most doubled points of anyone in the lists.
+         */
+        private int top;
+
+        private Buckets(int entrants, int maxPoints) {
+            heads = new int[maxPoints + 1];
+            tails = new int[maxPoints + 1];
+            Arrays.fill(heads, -1);
+            Arrays.fill(tails, -1);
+            next = new int[entrants];
+            previous = new int[entrants];
+            bucket = new int[entrants];
+        }
+
+        /**
+         * Adds the given entrant to the end of the list for the given points.
+         */
+        private void add(int player, int points) {
+            bucket[player] = points;
+            next[player] = -1;
+            previous[player] = tails[points];
+            if (tails[points] == -1) {
+                heads[points] = player;
+            } else {
+                next[tails[points]] = player;
+            }
+            tails[points] = player;
+            top = Math.max(top, points);
+        }
+
+        /**
+         * Removes the given entrant, who must be in a list.
+         */
+        private void remove(int player) {
+            int points = bucket[player];
+            if (previous[player] == -1) {
+                heads[points] = next[player];
+            } else {
+                next[previous[player]] = next[player];
+            }
+            if (next[player] == -1) {
+                tails[points] = previous[player];
+            } else {
+                previous[next[player]] = previous[player];
+            }
+        }
+
+        /**
+         * Gives the first entrant in the list with the most points, or -1 if
+         * the lists are empty.
+         */
+        private int first() {
+            while (top > 0 && heads[top] == -1) {
+                top--;
+            }
+            return heads[top];
+        }
+
+        /**
+         * Gives the entrant after the given one, moving on to the list with
+         * the next fewest points at the end of a list, or -1 if there is none.
+         */
+        private int next(int player) {
+            if (next[player] != -1) {
+                return next[player];
+            }
+            for (int points = bucket[player] - 1; points >= 0; points--) {
+                if (heads[points] != -1) {
+                    return heads[points];
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+import jdk.jfr.*;
+
+/**
+ * A TurnEvent records a single player's turn, from being asked to play to
+ * playing, passing or finishing their draws.
+ */
+@Name("crazyeights.Turn")
+@Label("Turn")
+@Category("Crazy Eights")
+@Enabled(false)
+@StackTrace(false)
+public class TurnEvent extends Event {
+    @Label("Turn")
+    int turn;
+
+    @Label("Seat")
+    int seat;
+
+    @Label("Hand Size")
+    @Description("The number of cards held at the end of the turn")
+    int handSize;
+
+    @Label("Draws")
+    @Description("The number of cards drawn during the turn")
+    int draws;
+
+    @Label("Draw Pile Size")
+    @Description("The number of cards left to draw at the end of the turn")
+    int drawPileSize;
+
+    @Label("Effect")
+    @Description("The effect code of the card played, or 0 if none was played")
+    int effect;
+}